@@ -9,6 +9,8 @@ import edu.wpi.first.wpilibj.Threads;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import org.frc5010.common.motors.hardware.GenericRevBrushlessMotor;
+import org.frc5010.common.motors.hardware.TalonFXConfigShadow;
 import org.littletonrobotics.junction.LogFileUtil;
 import org.littletonrobotics.junction.LoggedRobot;
 import org.littletonrobotics.junction.Logger;
@@ -124,7 +126,16 @@ public class Robot extends LoggedRobot {
     // and running subsystem periodic() methods. This must be called from the
     // robot's periodic
     // block in order for anything in the Command-based framework to work.
-    CommandScheduler.getInstance().run();
+    // REV and TalonFX configuration changes made during the loop, e.g. live tuning, are
+    // applied together and in parallel once the scheduler has run.
+    GenericRevBrushlessMotor.beginBatch();
+    TalonFXConfigShadow.beginBatch();
+    try {
+      CommandScheduler.getInstance().run();
+    } finally {
+      GenericRevBrushlessMotor.commitBatch();
+      TalonFXConfigShadow.commitBatch();
+    }
     // Return to normal thread priority
     Threads.setCurrentThreadPriority(false, 10);
   }
@@ -10,16 +10,25 @@ import org.frc5010.common.arch.WpiHelperInterface;
 import org.frc5010.common.arch.WpiNetworkTableValuesHelper;
 import org.frc5010.common.config.RobotsParser;
 import org.frc5010.common.constants.Constants;
+import org.frc5010.common.motors.hardware.GenericRevBrushlessMotor;
+import org.frc5010.common.motors.hardware.TalonFXConfigShadow;
 
 public class RobotContainer implements WpiHelperInterface {
-  private static final RobotsParser robotsParser = new RobotsParser();
   public static Constants constants;
   private GenericRobot robot;
 
   public RobotContainer() {
     constants = new Constants();
 
-    robot = robotsParser.getRobot();
+    // Configure all REV and TalonFX motors created by the robot together, in parallel
+    GenericRevBrushlessMotor.beginBatch();
+    TalonFXConfigShadow.beginBatch();
+    try {
+      robot = new RobotsParser().getRobot();
+    } finally {
+      GenericRevBrushlessMotor.commitBatch();
+      TalonFXConfigShadow.commitBatch();
+    }
 
     initAutoCommands();
     configureButtonBindings();
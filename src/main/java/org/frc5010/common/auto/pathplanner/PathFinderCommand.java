@@ -13,6 +13,7 @@ import com.pathplanner.lib.path.PathPlannerPath;
 import com.pathplanner.lib.path.PathPoint;
 import com.pathplanner.lib.pathfinding.Pathfinding;
 import com.pathplanner.lib.trajectory.PathPlannerTrajectory;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectoryState;
 import com.pathplanner.lib.util.DriveFeedforwards;
 import com.pathplanner.lib.util.FlippingUtil;
 import com.pathplanner.lib.util.PPLibTelemetry;
@@ -22,14 +23,22 @@ import edu.wpi.first.hal.HAL;
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.units.measure.LinearVelocity;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.RobotState;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.Subsystem;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
@@ -58,8 +67,29 @@ public class PathFinderCommand extends Command {
 
   private static boolean CommandRunning = false;
 
+  /** Precomputed paths to known targets, or null */
+  private static PathfindingLibrary pathfindingLibrary;
+  /** Whether the pathfinder has dynamic obstacles, which the library paths do not avoid */
+  private static volatile boolean dynamicObstaclesActive = false;
+  /** Trajectories generated for earlier pathfinding requests */
+  private static final TrajectoryCache trajectoryCache = new TrajectoryCache(32);
+  /** Generates trajectories off the robot loop */
+  private static final ExecutorService trajectoryGenerator =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "PathFinderTrajectory");
+            thread.setDaemon(true);
+            return thread;
+          });
+
   private PathPlannerPath currentPath;
   private PathPlannerTrajectory currentTrajectory;
+  /** Trajectory being generated for the latest path, followed once it is ready */
+  private Future<TrajectoryCache.Entry> pendingTrajectory;
+  /** Whether this command set the pathfinder goal and follows its new paths */
+  private boolean usingPathfinder = false;
+  /** The position the paths of this command start from, as given to the pathfinder */
+  private Translation2d pathStart;
 
   private double timeOffset = 0;
 
@@ -280,19 +310,23 @@ public class PathFinderCommand extends Command {
   public void initialize() {
     CommandRunning = true;
     currentTrajectory = null;
+    cancelPendingTrajectory();
+    usingPathfinder = false;
     timeOffset = 0;
     finish = false;
 
     Pose2d currentPose = poseSupplier.get();
+    ChassisSpeeds currentSpeeds = speedsSupplier.get();
+    pathStart = currentPose.getTranslation();
+
+    controller.reset(currentPose, currentSpeeds);
 
     if (RobotState.isAutonomous() && !pregenUsed && null != trajPregen) {
-      currentPath = pathPregen;
-      currentTrajectory = trajPregen;
+      followTrajectory(
+          new TrajectoryCache.Entry(pathPregen, trajPregen), currentPose, currentSpeeds);
       pregenUsed = true;
     }
 
-    controller.reset(currentPose, speedsSupplier.get());
-
     if (targetPath != null) {
       originalTargetPose =
           new Pose2d(this.targetPath.getPoint(0).position, originalTargetPose.getRotation());
@@ -306,11 +340,56 @@ public class PathFinderCommand extends Command {
       output.accept(new ChassisSpeeds(), DriveFeedforwards.zeros(robotConfig.numModules));
       finish = true;
     } else if (null == currentTrajectory) {
-      Pathfinding.setStartPosition(currentPose.getTranslation());
-      Pathfinding.setGoalPosition(targetPose.getTranslation());
+      TrajectoryCache.Entry cached =
+          trajectoryCache.get(
+              TrajectoryCache.key(
+                  currentPose, currentSpeeds, targetPose, constraints, goalEndState));
+      Optional<PathPlannerPath> libraryPath =
+          null == cached && null != pathfindingLibrary && !dynamicObstaclesActive
+              ? pathfindingLibrary.getPath(currentPose, targetPose, constraints, goalEndState)
+              : Optional.empty();
+      if (null != cached) {
+        followTrajectory(cached, currentPose, currentSpeeds);
+      } else if (libraryPath.isPresent()) {
+        requestTrajectory(libraryPath.get(), currentPose, currentSpeeds);
+      } else {
+        // Only this command's own goal may replace the trajectory, otherwise a path still
+        // planned for a previous goal would be followed and cached under this target
+        usingPathfinder = true;
+        Pathfinding.setStartPosition(pathStart);
+        Pathfinding.setGoalPosition(targetPose.getTranslation());
+      }
     }
   }
 
+  /**
+   * Set the library of precomputed paths used before falling back to the pathfinder
+   *
+   * @param library the library, or null to always use the pathfinder
+   */
+  public static void setPathfindingLibrary(PathfindingLibrary library) {
+    pathfindingLibrary = library;
+  }
+
+  /**
+   * Set whether the pathfinder has dynamic obstacles. The library paths are skipped while it does,
+   * since they were generated without them.
+   *
+   * @param active true if any dynamic obstacle covers a cell of the pathfinding grid
+   */
+  public static void setDynamicObstaclesActive(boolean active) {
+    dynamicObstaclesActive = active;
+  }
+
+  /**
+   * Get the cache of generated pathfinding trajectories
+   *
+   * @return the cache
+   */
+  public static TrajectoryCache getTrajectoryCache() {
+    return trajectoryCache;
+  }
+
   public static boolean isCommandRunning() {
     return CommandRunning;
   }
@@ -332,66 +411,25 @@ public class PathFinderCommand extends Command {
                     .getDistance(currentTrajectory.getEndState().pose.getTranslation())
                 < 1.5;
 
-    if (!skipUpdates && Pathfinding.isNewPathAvailable()) {
-      currentPath = Pathfinding.getCurrentPath(constraints, goalEndState);
-
-      if (currentPath != null) {
-        currentTrajectory =
-            new PathPlannerTrajectory(
-                currentPath, currentSpeeds, currentPose.getRotation(), robotConfig);
-
-        // Find the two closest states in front of and behind robot
-        int closestState1Idx = 0;
-        int closestState2Idx = 1;
-        while (closestState2Idx < currentTrajectory.getStates().size() - 1) {
-          double closest2Dist =
-              currentTrajectory
-                  .getState(closestState2Idx)
-                  .pose
-                  .getTranslation()
-                  .getDistance(currentPose.getTranslation());
-          double nextDist =
-              currentTrajectory
-                  .getState(closestState2Idx + 1)
-                  .pose
-                  .getTranslation()
-                  .getDistance(currentPose.getTranslation());
-          if (nextDist < closest2Dist) {
-            closestState1Idx++;
-            closestState2Idx++;
-          } else {
-            break;
-          }
-        }
+    if (null != pendingTrajectory && pendingTrajectory.isDone()) {
+      try {
+        followTrajectory(pendingTrajectory.get(), currentPose, currentSpeeds);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        DriverStation.reportError(
+            "Pathfinding trajectory generation failed: " + e.getCause().getMessage(),
+            e.getCause().getStackTrace());
+      }
+      pendingTrajectory = null;
+    }
 
-        // Use the closest 2 states to interpolate what the time offset should be
-        // This will account for the delay in pathfinding
-        var closestState1 = currentTrajectory.getState(closestState1Idx);
-        var closestState2 = currentTrajectory.getState(closestState2Idx);
-
-        double d =
-            closestState1.pose.getTranslation().getDistance(closestState2.pose.getTranslation());
-        double t =
-            (currentPose.getTranslation().getDistance(closestState1.pose.getTranslation())) / d;
-        t = MathUtil.clamp(t, 0.0, 1.0);
-
-        timeOffset = MathUtil.interpolate(closestState1.timeSeconds, closestState2.timeSeconds, t);
-
-        // If the robot is stationary and at the start of the path, set the time offset to the next
-        // loop
-        // This can prevent an issue where the robot will remain stationary if new paths come in
-        // every loop
-        if (timeOffset <= 0.02
-            && Math.hypot(currentSpeeds.vxMetersPerSecond, currentSpeeds.vyMetersPerSecond) < 0.1) {
-          timeOffset = 0.02;
-        }
+    if (usingPathfinder && !skipUpdates && Pathfinding.isNewPathAvailable()) {
+      PathPlannerPath path = Pathfinding.getCurrentPath(constraints, goalEndState);
 
-        PathPlannerLogging.logActivePath(currentPath);
-        PPLibTelemetry.setCurrentPath(currentPath);
+      if (path != null) {
+        requestTrajectory(path, currentPose, currentSpeeds);
       }
-
-      timer.reset();
-      timer.start();
     }
 
     if (currentTrajectory != null) {
@@ -419,6 +457,129 @@ public class PathFinderCommand extends Command {
     }
   }
 
+  /**
+   * Use a cached trajectory for the path if there is one, otherwise generate it on the worker
+   * thread while the current trajectory, if any, is still followed. The trajectory is cached under
+   * the position the path was planned from, which is where the next command starting there looks
+   * it up, rather than where the robot is when the path arrives.
+   *
+   * @param path the new path
+   * @param currentPose the current robot pose
+   * @param currentSpeeds the current robot relative speeds
+   */
+  private void requestTrajectory(
+      PathPlannerPath path, Pose2d currentPose, ChassisSpeeds currentSpeeds) {
+    TrajectoryCache.Key key =
+        TrajectoryCache.key(
+            new Pose2d(pathStart, currentPose.getRotation()),
+            currentSpeeds,
+            targetPose,
+            constraints,
+            goalEndState);
+    TrajectoryCache.Entry cached = trajectoryCache.get(key);
+    // An older generation still running would otherwise replace the trajectory when it finishes
+    cancelPendingTrajectory();
+    if (null != cached) {
+      followTrajectory(cached, currentPose, currentSpeeds);
+      return;
+    }
+    Rotation2d startRotation = currentPose.getRotation();
+    long cacheEpoch = trajectoryCache.getEpoch();
+    pendingTrajectory =
+        trajectoryGenerator.submit(
+            () -> {
+              TrajectoryCache.Entry generated =
+                  new TrajectoryCache.Entry(
+                      path,
+                      new PathPlannerTrajectory(path, currentSpeeds, startRotation, robotConfig));
+              trajectoryCache.put(key, generated, cacheEpoch);
+              return generated;
+            });
+  }
+
+  private void cancelPendingTrajectory() {
+    if (null != pendingTrajectory) {
+      pendingTrajectory.cancel(false);
+      pendingTrajectory = null;
+    }
+  }
+
+  /**
+   * Start following a trajectory from the point closest to the robot
+   *
+   * @param generated the path and its trajectory
+   * @param currentPose the current robot pose
+   * @param currentSpeeds the current robot relative speeds
+   */
+  private void followTrajectory(
+      TrajectoryCache.Entry generated, Pose2d currentPose, ChassisSpeeds currentSpeeds) {
+    currentPath = generated.path();
+    currentTrajectory = generated.trajectory();
+
+    // Use the closest 2 states to interpolate what the time offset should be
+    // This will account for the delay in pathfinding
+    timeOffset = closestTime(currentTrajectory, currentPose);
+
+    // If the robot is stationary and at the start of the path, set the time offset to the next
+    // loop
+    // This can prevent an issue where the robot will remain stationary if new paths come in
+    // every loop
+    if (timeOffset <= 0.02
+        && Math.hypot(currentSpeeds.vxMetersPerSecond, currentSpeeds.vyMetersPerSecond) < 0.1) {
+      timeOffset = 0.02;
+    }
+
+    PathPlannerLogging.logActivePath(currentPath);
+    PPLibTelemetry.setCurrentPath(currentPath);
+
+    timer.reset();
+    timer.start();
+  }
+
+  /**
+   * Find the two closest states in front of and behind the robot, and interpolate the time between
+   * them. Compares squared distances so the scan does not allocate or take square roots.
+   *
+   * @param trajectory the trajectory
+   * @param pose the robot pose
+   * @return the interpolated trajectory time in seconds
+   */
+  private static double closestTime(PathPlannerTrajectory trajectory, Pose2d pose) {
+    List<PathPlannerTrajectoryState> states = trajectory.getStates();
+    if (states.size() < 2) {
+      return 0.0;
+    }
+    double x = pose.getX();
+    double y = pose.getY();
+    int closestState1Idx = 0;
+    int closestState2Idx = 1;
+    double closest2DistSq = distanceSquared(states.get(closestState2Idx), x, y);
+    while (closestState2Idx < states.size() - 1) {
+      double nextDistSq = distanceSquared(states.get(closestState2Idx + 1), x, y);
+      if (nextDistSq < closest2DistSq) {
+        closestState1Idx++;
+        closestState2Idx++;
+        closest2DistSq = nextDistSq;
+      } else {
+        break;
+      }
+    }
+
+    PathPlannerTrajectoryState closestState1 = states.get(closestState1Idx);
+    PathPlannerTrajectoryState closestState2 = states.get(closestState2Idx);
+    double d =
+        closestState1.pose.getTranslation().getDistance(closestState2.pose.getTranslation());
+    double t = (pose.getTranslation().getDistance(closestState1.pose.getTranslation())) / d;
+    t = MathUtil.clamp(t, 0.0, 1.0);
+    return MathUtil.interpolate(closestState1.timeSeconds, closestState2.timeSeconds, t);
+  }
+
+  private static double distanceSquared(PathPlannerTrajectoryState state, double x, double y) {
+    double dx = state.pose.getX() - x;
+    double dy = state.pose.getY() - y;
+    return dx * dx + dy * dy;
+  }
+
   @Override
   public boolean isFinished() {
     if (finish) {
@@ -448,6 +609,7 @@ public class PathFinderCommand extends Command {
   public void end(boolean interrupted) {
     CommandRunning = false;
     pregeneratedPath = false;
+    cancelPendingTrajectory();
     timer.stop();
 
     // Only output 0 speeds when ending a path that is supposed to stop, this allows interrupting
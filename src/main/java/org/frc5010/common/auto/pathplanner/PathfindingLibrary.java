@@ -0,0 +1,439 @@
+package org.frc5010.common.auto.pathplanner;
+
+import com.pathplanner.lib.path.GoalEndState;
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.path.Waypoint;
+import com.pathplanner.lib.pathfinding.LocalADStar;
+import com.pathplanner.lib.util.FlippingUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Library of pathfinding paths precomputed from a grid of start cells to a set of named targets,
+ * so that driving to a target is a table lookup instead of a pathfinding search.
+ *
+ * <p>The paths are generated by {@link #generateCommand()} while the robot is disabled, using a
+ * pathfinder separate from the one used by the commands, and saved to a compact binary file in the
+ * deploy directory. Generating in simulation writes the file into the project so that it is
+ * deployed with the code. The file is read on a background thread by {@link #loadAsync()}, and
+ * lookups miss until it has been read. Generation and saving wait for the read to finish, so paths
+ * already in the file are not generated again or lost.
+ *
+ * <p>Every library generates with one shared {@link LocalADStar}, created on first use. Its
+ * planning thread keeps running for the rest of the program once created, so it is only created
+ * when a generation actually starts. Only one library should generate at a time.
+ */
+public class PathfindingLibrary {
+  private static final int MAGIC = 0x50464c42;
+  private static final int FORMAT_VERSION = 1;
+  /** Distance within which a goal pose matches a target in meters */
+  public static double TARGET_TOLERANCE_METERS = 0.05;
+  /** Angle within which a goal pose matches a target in degrees */
+  public static double TARGET_TOLERANCE_DEGREES = 2.0;
+  /** Loops to wait for the pathfinder before skipping a start cell */
+  public static int MAX_SEARCH_LOOPS = 50;
+
+  private static final PathConstraints GENERATION_CONSTRAINTS = new PathConstraints(1, 1, 1, 1);
+
+  private final File file;
+  private final double cellSize;
+  private final List<String> targetNames = new ArrayList<>();
+  private final List<Pose2d> targetPoses = new ArrayList<>();
+  private final List<Translation2d[]> startRegions = new ArrayList<>();
+  /** Waypoints of the path from each start cell, per target */
+  private final List<Map<Long, Waypoint[]>> paths = new ArrayList<>();
+  private volatile boolean loaded = false;
+  private volatile boolean dirty = false;
+
+  /** The pathfinder used for generation, shared since each instance keeps a thread running */
+  private static LocalADStar generator;
+
+  private volatile Thread loader;
+  private final Deque<long[]> pending = new ArrayDeque<>();
+  private long[] request;
+  private int searchLoops;
+
+  /**
+   * Create a library
+   *
+   * @param fileName the name of the file in the pathplanner deploy directory
+   * @param cellSizeMeters the size of the start cells in meters
+   */
+  public PathfindingLibrary(String fileName, double cellSizeMeters) {
+    file = new File(new File(Filesystem.getDeployDirectory(), "pathplanner"), fileName);
+    cellSize = cellSizeMeters;
+  }
+
+  /**
+   * Add a target
+   *
+   * @param name the name of the target
+   * @param pose the pose of the target on the blue alliance side
+   * @return this library
+   */
+  public PathfindingLibrary addTarget(String name, Pose2d pose) {
+    targetNames.add(name);
+    targetPoses.add(pose);
+    paths.add(new ConcurrentHashMap<>());
+    return this;
+  }
+
+  /**
+   * Add a region the robot is likely to start from. Without regions the whole field is used.
+   *
+   * @param corner1 a corner of the region
+   * @param corner2 the opposite corner of the region
+   * @return this library
+   */
+  public PathfindingLibrary addStartRegion(Translation2d corner1, Translation2d corner2) {
+    startRegions.add(new Translation2d[] {corner1, corner2});
+    return this;
+  }
+
+  /**
+   * Get the precomputed path to a goal. The start of the path is moved to the robot position. Goals
+   * on the red alliance side are matched against the flipped targets.
+   *
+   * @param start the robot pose
+   * @param goal the goal pose
+   * @param constraints the constraints of the path
+   * @param goalEndState the goal end state of the path
+   * @return the path, or empty if the library has none for this start and goal
+   */
+  public Optional<PathPlannerPath> getPath(
+      Pose2d start, Pose2d goal, PathConstraints constraints, GoalEndState goalEndState) {
+    if (!loaded) {
+      return Optional.empty();
+    }
+    int target = findTarget(goal);
+    if (target < 0) {
+      target = findTarget(FlippingUtil.flipFieldPose(goal));
+      if (target < 0) {
+        return Optional.empty();
+      }
+      return getPath(
+              FlippingUtil.flipFieldPose(start),
+              FlippingUtil.flipFieldPose(goal),
+              constraints,
+              new GoalEndState(
+                  goalEndState.velocityMPS(),
+                  FlippingUtil.flipFieldRotation(goalEndState.rotation())))
+          .map(PathPlannerPath::flipPath);
+    }
+    Waypoint[] stored = paths.get(target).get(cellKey(start.getTranslation()));
+    if (null == stored || stored.length < 2) {
+      return Optional.empty();
+    }
+    List<Waypoint> waypoints = new ArrayList<>(Arrays.asList(stored));
+    waypoints.set(0, new Waypoint(null, start.getTranslation(), stored[0].nextControl()));
+    return Optional.of(new PathPlannerPath(waypoints, constraints, null, goalEndState));
+  }
+
+  private int findTarget(Pose2d goal) {
+    for (int i = 0; i < targetPoses.size(); i++) {
+      Pose2d target = targetPoses.get(i);
+      if (target.getTranslation().getDistance(goal.getTranslation()) <= TARGET_TOLERANCE_METERS
+          && Math.abs(target.getRotation().minus(goal.getRotation()).getDegrees())
+              <= TARGET_TOLERANCE_DEGREES) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private long cellKey(Translation2d position) {
+    return cellKey(
+        (int) Math.floor(position.getX() / cellSize), (int) Math.floor(position.getY() / cellSize));
+  }
+
+  private static long cellKey(int cellX, int cellY) {
+    return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+  }
+
+  private Translation2d cellCenter(long key) {
+    int cellX = (int) (key >> 32);
+    int cellY = (int) key;
+    return new Translation2d((cellX + 0.5) * cellSize, (cellY + 0.5) * cellSize);
+  }
+
+  /**
+   * Get the keys of every start cell whose center is in a start region
+   *
+   * @return the cell keys
+   */
+  private Set<Long> startCells() {
+    List<Translation2d[]> regions = startRegions;
+    if (regions.isEmpty()) {
+      regions =
+          List.<Translation2d[]>of(
+              new Translation2d[] {
+                Translation2d.kZero,
+                new Translation2d(FlippingUtil.fieldSizeX, FlippingUtil.fieldSizeY)
+              });
+    }
+    Set<Long> cells = new LinkedHashSet<>();
+    for (Translation2d[] region : regions) {
+      double minX = Math.min(region[0].getX(), region[1].getX());
+      double maxX = Math.max(region[0].getX(), region[1].getX());
+      double minY = Math.min(region[0].getY(), region[1].getY());
+      double maxY = Math.max(region[0].getY(), region[1].getY());
+      int firstX = (int) Math.ceil(minX / cellSize - 0.5);
+      int lastX = (int) Math.floor(maxX / cellSize - 0.5);
+      int firstY = (int) Math.ceil(minY / cellSize - 0.5);
+      int lastY = (int) Math.floor(maxY / cellSize - 0.5);
+      for (int cellX = firstX; cellX <= lastX; cellX++) {
+        for (int cellY = firstY; cellY <= lastY; cellY++) {
+          cells.add(cellKey(cellX, cellY));
+        }
+      }
+    }
+    return cells;
+  }
+
+  /**
+   * Create a command that computes the missing paths while the robot is disabled, and saves the
+   * library when it finishes or the robot is enabled.
+   *
+   * @return the generation command
+   */
+  public Command generateCommand() {
+    return Commands.waitUntil(this::isLoadFinished)
+        .andThen(Commands.runOnce(this::startGeneration))
+        .andThen(
+            Commands.run(this::generateStep)
+                .until(() -> (null == request && pending.isEmpty()) || DriverStation.isEnabled()))
+        .finallyDo(this::finishGeneration)
+        .ignoringDisable(true)
+        .withName("PathfindingLibraryGenerate");
+  }
+
+  private void startGeneration() {
+    synchronized (PathfindingLibrary.class) {
+      if (null == generator) {
+        generator = new LocalADStar();
+      }
+    }
+    pending.clear();
+    request = null;
+    Set<Long> cells = startCells();
+    for (int target = 0; target < targetPoses.size(); target++) {
+      for (long cell : cells) {
+        if (!paths.get(target).containsKey(cell)) {
+          pending.add(new long[] {target, cell});
+        }
+      }
+    }
+  }
+
+  private void generateStep() {
+    if (null == request) {
+      request = pending.poll();
+      if (null == request) {
+        return;
+      }
+      searchLoops = 0;
+      generator.setStartPosition(cellCenter(request[1]));
+      generator.setGoalPosition(targetPoses.get((int) request[0]).getTranslation());
+      return;
+    }
+    Pose2d target = targetPoses.get((int) request[0]);
+    if (generator.isNewPathAvailable()) {
+      PathPlannerPath path =
+          generator.getCurrentPath(
+              GENERATION_CONSTRAINTS, new GoalEndState(0.0, target.getRotation()));
+      if (null != path && isPathFor(path, cellCenter(request[1]), target.getTranslation())) {
+        List<Waypoint> waypoints = path.getWaypoints();
+        // The file stores the waypoint count in one byte
+        if (waypoints.size() <= 255) {
+          paths.get((int) request[0]).put(request[1], waypoints.toArray(new Waypoint[0]));
+          dirty = true;
+        }
+        request = null;
+        return;
+      }
+    }
+    if (++searchLoops > MAX_SEARCH_LOOPS) {
+      request = null;
+    }
+  }
+
+  /** Check that a path from the pathfinder answers the current request and not an older one. */
+  private boolean isPathFor(PathPlannerPath path, Translation2d start, Translation2d goal) {
+    List<Waypoint> waypoints = path.getWaypoints();
+    return waypoints.size() >= 2
+        && waypoints.get(0).anchor().getDistance(start) <= cellSize
+        && waypoints.get(waypoints.size() - 1).anchor().getDistance(goal)
+            <= TARGET_TOLERANCE_METERS;
+  }
+
+  private void finishGeneration(boolean interrupted) {
+    pending.clear();
+    request = null;
+    // Generation only starts once any read has finished, so the paths can be used now even if
+    // the file was never read or nothing was added
+    if (!isLoadFinished()) {
+      return;
+    }
+    loaded = true;
+    if (dirty) {
+      Thread saver = new Thread(this::save, "PathfindingLibrarySave");
+      saver.setDaemon(true);
+      saver.start();
+    }
+  }
+
+  /** Read the library file on a background thread, once. */
+  public synchronized void loadAsync() {
+    if (null != loader) {
+      return;
+    }
+    loader = new Thread(this::load, "PathfindingLibraryLoad");
+    loader.setDaemon(true);
+    loader.start();
+  }
+
+  /**
+   * Check whether no read of the library file is in progress
+   *
+   * @return true if the file was read, or no read was started
+   */
+  private boolean isLoadFinished() {
+    Thread reading = loader;
+    return null == reading || !reading.isAlive();
+  }
+
+  /** Wait for the read of the library file to finish, if one was started. */
+  private void awaitLoad() {
+    Thread reading = loader;
+    if (null == reading) {
+      return;
+    }
+    try {
+      reading.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void load() {
+    if (file.exists()) {
+      try (DataInputStream in =
+          new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+        read(in);
+      } catch (IOException e) {
+        DriverStation.reportWarning(
+            "Could not read pathfinding library " + file + ": " + e.getMessage(), false);
+      }
+    }
+    loaded = true;
+  }
+
+  private void read(DataInputStream in) throws IOException {
+    if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readDouble() != cellSize) {
+      DriverStation.reportWarning("Pathfinding library " + file + " is out of date", false);
+      return;
+    }
+    int targetCount = in.readInt();
+    int[] targetIndex = new int[targetCount];
+    for (int i = 0; i < targetCount; i++) {
+      String name = in.readUTF();
+      Pose2d pose = new Pose2d(in.readDouble(), in.readDouble(), new Rotation2d(in.readDouble()));
+      int index = targetNames.indexOf(name);
+      // Paths to a target that moved are stale
+      targetIndex[i] = index >= 0 && targetPoses.get(index).equals(pose) ? index : -1;
+    }
+    for (int i = 0; i < targetCount; i++) {
+      int entries = in.readInt();
+      for (int entry = 0; entry < entries; entry++) {
+        long cell = in.readLong();
+        Waypoint[] waypoints = new Waypoint[in.readUnsignedByte()];
+        for (int w = 0; w < waypoints.length; w++) {
+          waypoints[w] = new Waypoint(readPoint(in), readPoint(in), readPoint(in));
+        }
+        if (targetIndex[i] >= 0) {
+          paths.get(targetIndex[i]).put(cell, waypoints);
+        }
+      }
+    }
+  }
+
+  /** Write the library file, after waiting for a read in progress. */
+  public synchronized void save() {
+    awaitLoad();
+    file.getParentFile().mkdirs();
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeDouble(cellSize);
+      out.writeInt(targetPoses.size());
+      for (int i = 0; i < targetPoses.size(); i++) {
+        Pose2d pose = targetPoses.get(i);
+        out.writeUTF(targetNames.get(i));
+        out.writeDouble(pose.getX());
+        out.writeDouble(pose.getY());
+        out.writeDouble(pose.getRotation().getRadians());
+      }
+      for (Map<Long, Waypoint[]> targetPaths : paths) {
+        out.writeInt(targetPaths.size());
+        for (Map.Entry<Long, Waypoint[]> entry : targetPaths.entrySet()) {
+          out.writeLong(entry.getKey());
+          out.writeByte(entry.getValue().length);
+          for (Waypoint waypoint : entry.getValue()) {
+            writePoint(out, waypoint.prevControl());
+            writePoint(out, waypoint.anchor());
+            writePoint(out, waypoint.nextControl());
+          }
+        }
+      }
+      dirty = false;
+    } catch (IOException e) {
+      DriverStation.reportWarning(
+          "Could not write pathfinding library " + file + ": " + e.getMessage(), false);
+    }
+  }
+
+  private static Translation2d readPoint(DataInputStream in) throws IOException {
+    float x = in.readFloat();
+    float y = in.readFloat();
+    return Float.isNaN(x) ? null : new Translation2d(x, y);
+  }
+
+  private static void writePoint(DataOutputStream out, Translation2d point) throws IOException {
+    out.writeFloat(null == point ? Float.NaN : (float) point.getX());
+    out.writeFloat(null == point ? Float.NaN : (float) point.getY());
+  }
+
+  /**
+   * Check whether the library file has been read or a generation has finished
+   *
+   * @return true once lookups can succeed
+   */
+  public boolean isLoaded() {
+    return loaded;
+  }
+}
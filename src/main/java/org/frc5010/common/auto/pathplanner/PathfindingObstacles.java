@@ -0,0 +1,235 @@
+package org.frc5010.common.auto.pathplanner;
+
+import com.pathplanner.lib.pathfinding.Pathfinding;
+import edu.wpi.first.math.Pair;
+import edu.wpi.first.math.geometry.Translation2d;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Rasterizes circular obstacles, such as a field element or opponent robots, into the cells of the
+ * pathfinding grid and feeds them to {@link Pathfinding#setDynamicObstacles(List, Translation2d)}.
+ *
+ * <p>Each obstacle keeps the cells it covers and is only re-rasterized when it moves to a
+ * different cell or changes size. The pathfinder is only given new obstacles, which makes it
+ * re-mark its grid and replan, when the set of covered cells actually changed. While any cell is
+ * covered, {@link PathFinderCommand} skips the precomputed {@link PathfindingLibrary} paths, which
+ * were generated without obstacles.
+ */
+public class PathfindingObstacles {
+  /** Size of the pathfinding grid cells in meters, matching the navgrid */
+  public static double NODE_SIZE_METERS = 0.3;
+
+  /** An obstacle and the cells it covers */
+  private static class Obstacle {
+    Translation2d center;
+    double radius;
+    int centerX;
+    int centerY;
+    int radiusMillimeters;
+    Set<Long> cells = new HashSet<>();
+  }
+
+  /** A supplier of obstacle positions that is polled on every update */
+  private record Source(String name, Supplier<List<Translation2d>> centers, double radius) {}
+
+  private final Map<String, Obstacle> obstacles = new LinkedHashMap<>();
+  private final List<Source> sources = new ArrayList<>();
+  private final Map<String, Integer> sourceCounts = new LinkedHashMap<>();
+  private double robotRadius = 0.0;
+  private boolean changed = false;
+
+  /**
+   * Set the radius of the robot, by which every obstacle is inflated
+   *
+   * @param radius the radius in meters
+   */
+  public void setRobotRadius(double radius) {
+    if (radius != robotRadius) {
+      robotRadius = radius;
+      // Every obstacle is inflated by the robot radius, so rasterize them all again
+      for (Obstacle obstacle : obstacles.values()) {
+        Set<Long> cells = rasterize(obstacle.center, obstacle.radius + robotRadius);
+        if (!cells.equals(obstacle.cells)) {
+          obstacle.cells = cells;
+          changed = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Add or move a circular obstacle
+   *
+   * @param name the name of the obstacle
+   * @param center the center of the obstacle on the field
+   * @param radius the radius of the obstacle in meters
+   */
+  public void setCircularObstacle(String name, Translation2d center, double radius) {
+    Obstacle obstacle = obstacles.computeIfAbsent(name, key -> new Obstacle());
+    int centerX = (int) Math.floor(center.getX() / NODE_SIZE_METERS);
+    int centerY = (int) Math.floor(center.getY() / NODE_SIZE_METERS);
+    int radiusMillimeters = (int) Math.round(radius * 1000);
+    if (obstacle.centerX == centerX
+        && obstacle.centerY == centerY
+        && obstacle.radiusMillimeters == radiusMillimeters
+        && !obstacle.cells.isEmpty()) {
+      return;
+    }
+    obstacle.center = center;
+    obstacle.radius = radius;
+    obstacle.centerX = centerX;
+    obstacle.centerY = centerY;
+    obstacle.radiusMillimeters = radiusMillimeters;
+    Set<Long> cells = rasterize(center, radius + robotRadius);
+    if (!cells.equals(obstacle.cells)) {
+      obstacle.cells = cells;
+      changed = true;
+    }
+  }
+
+  /**
+   * Remove an obstacle
+   *
+   * @param name the name of the obstacle
+   */
+  public void removeObstacle(String name) {
+    Obstacle obstacle = obstacles.remove(name);
+    if (null != obstacle && !obstacle.cells.isEmpty()) {
+      changed = true;
+    }
+  }
+
+  /**
+   * Add a source of obstacles polled on every update, e.g. opponent robots detected by a camera
+   *
+   * @param name the name of the source, used to name its obstacles
+   * @param centers supplies the centers of the obstacles on the field
+   * @param radius the radius of each obstacle in meters
+   */
+  public void addObstacleSource(String name, Supplier<List<Translation2d>> centers, double radius) {
+    sources.add(new Source(name, centers, radius));
+  }
+
+  /**
+   * Poll the obstacle sources and give the pathfinder the obstacles if any covered cell changed
+   *
+   * @param robotPosition the current position of the robot
+   */
+  public void update(Translation2d robotPosition) {
+    for (Source source : sources) {
+      List<Translation2d> centers = source.centers().get();
+      int previousCount = sourceCounts.getOrDefault(source.name(), 0);
+      for (int i = 0; i < centers.size(); i++) {
+        setCircularObstacle(source.name() + i, centers.get(i), source.radius());
+      }
+      for (int i = centers.size(); i < previousCount; i++) {
+        removeObstacle(source.name() + i);
+      }
+      sourceCounts.put(source.name(), centers.size());
+    }
+    if (!changed) {
+      return;
+    }
+    changed = false;
+    Pathfinding.ensureInitialized();
+    List<Pair<Translation2d, Translation2d>> boxes = toBoxes();
+    Pathfinding.setDynamicObstacles(boxes, robotPosition);
+    // Cached trajectories and library paths may now cross an obstacle
+    PathFinderCommand.getTrajectoryCache().clear();
+    PathFinderCommand.setDynamicObstaclesActive(!boxes.isEmpty());
+  }
+
+  /**
+   * Get the cells whose square touches a circle
+   *
+   * @param center the center of the circle
+   * @param radius the radius of the circle
+   * @return the cell keys
+   */
+  private static Set<Long> rasterize(Translation2d center, double radius) {
+    Set<Long> cells = new HashSet<>();
+    if (radius <= 0) {
+      return cells;
+    }
+    double x = center.getX();
+    double y = center.getY();
+    int minX = (int) Math.floor((x - radius) / NODE_SIZE_METERS);
+    int maxX = (int) Math.floor((x + radius) / NODE_SIZE_METERS);
+    int minY = (int) Math.floor((y - radius) / NODE_SIZE_METERS);
+    int maxY = (int) Math.floor((y + radius) / NODE_SIZE_METERS);
+    for (int cellX = minX; cellX <= maxX; cellX++) {
+      for (int cellY = minY; cellY <= maxY; cellY++) {
+        // Distance from the center to the closest point of the cell
+        double dx = distanceToSpan(x, cellX * NODE_SIZE_METERS, (cellX + 1) * NODE_SIZE_METERS);
+        double dy = distanceToSpan(y, cellY * NODE_SIZE_METERS, (cellY + 1) * NODE_SIZE_METERS);
+        if (dx * dx + dy * dy <= radius * radius) {
+          cells.add(cellKey(cellX, cellY));
+        }
+      }
+    }
+    return cells;
+  }
+
+  private static double distanceToSpan(double value, double min, double max) {
+    return Math.max(0, Math.max(min - value, value - max));
+  }
+
+  /**
+   * Merge the covered cells into one box per run of cells in a row. The corners are cell centers
+   * so that the pathfinder marks exactly the covered cells.
+   *
+   * @return the boxes as pairs of opposite corners
+   */
+  private List<Pair<Translation2d, Translation2d>> toBoxes() {
+    Set<Long> covered = new HashSet<>();
+    for (Obstacle obstacle : obstacles.values()) {
+      covered.addAll(obstacle.cells);
+    }
+    long[] cells = new long[covered.size()];
+    int count = 0;
+    for (long cell : covered) {
+      cells[count++] = cell;
+    }
+    // Keys sort by row, then by column
+    Arrays.sort(cells);
+    List<Pair<Translation2d, Translation2d>> boxes = new ArrayList<>();
+    int i = 0;
+    while (i < cells.length) {
+      int row = cellRow(cells[i]);
+      int first = cellColumn(cells[i]);
+      int last = first;
+      while (i + 1 < cells.length
+          && cellRow(cells[i + 1]) == row
+          && cellColumn(cells[i + 1]) == last + 1) {
+        last++;
+        i++;
+      }
+      boxes.add(
+          Pair.of(
+              new Translation2d((first + 0.5) * NODE_SIZE_METERS, (row + 0.5) * NODE_SIZE_METERS),
+              new Translation2d((last + 0.5) * NODE_SIZE_METERS, (row + 0.5) * NODE_SIZE_METERS)));
+      i++;
+    }
+    return boxes;
+  }
+
+  private static long cellKey(int cellX, int cellY) {
+    // Offset so that negative cells still sort by row, then by column
+    return ((long) (cellY + (1 << 20)) << 32) | (cellX + (1 << 20));
+  }
+
+  private static int cellRow(long key) {
+    return (int) (key >> 32) - (1 << 20);
+  }
+
+  private static int cellColumn(long key) {
+    return (int) (key & 0xFFFFFFFFL) - (1 << 20);
+  }
+}
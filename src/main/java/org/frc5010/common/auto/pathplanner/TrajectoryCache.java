@@ -0,0 +1,152 @@
+package org.frc5010.common.auto.pathplanner;
+
+import com.pathplanner.lib.path.GoalEndState;
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectory;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of generated pathfinding trajectories. Entries are keyed on the
+ * quantized start and goal poses, the robot speeds at the start and the path constraints, so that
+ * repeated trips to the same target, such as a scoring position, reuse an earlier result instead
+ * of generating the trajectory again.
+ */
+public class TrajectoryCache {
+  /** Resolution of the start and goal translations in meters */
+  public static double TRANSLATION_RESOLUTION_METERS = 0.1;
+  /** Resolution of the start and goal rotations in degrees */
+  public static double ROTATION_RESOLUTION_DEGREES = 5.0;
+  /** Resolution of the start speeds in meters per second */
+  public static double SPEED_RESOLUTION_MPS = 0.25;
+
+  /** A path and the trajectory generated from it */
+  public record Entry(PathPlannerPath path, PathPlannerTrajectory trajectory) {}
+
+  /** The quantized inputs of a trajectory */
+  public record Key(
+      int startX,
+      int startY,
+      int startRotation,
+      int goalX,
+      int goalY,
+      int goalRotation,
+      int vx,
+      int vy,
+      PathConstraints constraints,
+      GoalEndState goalEndState) {}
+
+  private final Map<Key, Entry> entries;
+  /** Incremented by every clear so that trajectories generated before it are not added */
+  private long epoch = 0;
+
+  /**
+   * Create a cache
+   *
+   * @param capacity the maximum number of trajectories kept
+   */
+  public TrajectoryCache(int capacity) {
+    entries =
+        new LinkedHashMap<>(capacity, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /**
+   * Build the key of a trajectory
+   *
+   * @param start the robot pose at the start
+   * @param startSpeeds the robot relative speeds at the start
+   * @param goal the goal pose
+   * @param constraints the path constraints
+   * @param goalEndState the goal end state
+   * @return the key
+   */
+  public static Key key(
+      Pose2d start,
+      ChassisSpeeds startSpeeds,
+      Pose2d goal,
+      PathConstraints constraints,
+      GoalEndState goalEndState) {
+    return new Key(
+        quantize(start.getX(), TRANSLATION_RESOLUTION_METERS),
+        quantize(start.getY(), TRANSLATION_RESOLUTION_METERS),
+        quantize(start.getRotation().getDegrees(), ROTATION_RESOLUTION_DEGREES),
+        quantize(goal.getX(), TRANSLATION_RESOLUTION_METERS),
+        quantize(goal.getY(), TRANSLATION_RESOLUTION_METERS),
+        quantize(goal.getRotation().getDegrees(), ROTATION_RESOLUTION_DEGREES),
+        quantize(startSpeeds.vxMetersPerSecond, SPEED_RESOLUTION_MPS),
+        quantize(startSpeeds.vyMetersPerSecond, SPEED_RESOLUTION_MPS),
+        constraints,
+        goalEndState);
+  }
+
+  private static int quantize(double value, double resolution) {
+    return (int) Math.round(value / resolution);
+  }
+
+  /**
+   * Get a cached trajectory, marking it as recently used
+   *
+   * @param key the key
+   * @return the entry, or null if not cached
+   */
+  public synchronized Entry get(Key key) {
+    return entries.get(key);
+  }
+
+  /**
+   * Add a trajectory, evicting the least recently used one if the cache is full
+   *
+   * @param key the key
+   * @param entry the path and trajectory
+   */
+  public synchronized void put(Key key, Entry entry) {
+    entries.put(key, entry);
+  }
+
+  /**
+   * Get the current epoch, to be passed to {@link #put(Key, Entry, long)} by a trajectory that is
+   * generated asynchronously
+   *
+   * @return the epoch
+   */
+  public synchronized long getEpoch() {
+    return epoch;
+  }
+
+  /**
+   * Add a trajectory only if the cache has not been cleared since the given epoch, so a trajectory
+   * generated for the previous obstacles is dropped
+   *
+   * @param key the key
+   * @param entry the path and trajectory
+   * @param expectedEpoch the epoch when the generation was submitted
+   */
+  public synchronized void put(Key key, Entry entry, long expectedEpoch) {
+    if (epoch == expectedEpoch) {
+      entries.put(key, entry);
+    }
+  }
+
+  /** Remove every trajectory, e.g. when the field obstacles change. */
+  public synchronized void clear() {
+    entries.clear();
+    epoch++;
+  }
+
+  /**
+   * Get the number of cached trajectories
+   *
+   * @return the number of trajectories
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+}
@@ -4,8 +4,6 @@
 
 package org.frc5010.common.commands;
 
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
@@ -14,6 +12,7 @@ import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 import org.frc5010.common.drive.swerve.GenericSwerveDrivetrain;
+import org.frc5010.common.sensors.Controller.Stick;
 
 public class JoystickToSwerve extends Command {
   /** Creates a new JoystickToSwerve. */
@@ -23,6 +22,8 @@ public class JoystickToSwerve extends Command {
   private BooleanSupplier fieldOrientedDrive;
   private Supplier<Alliance> allianceSupplier;
   private DoubleSupplier robotSpeedFactor = () -> 1.0;
+  /** Shapes the translation inputs together, cubing the length of the stick vector */
+  private final Stick translationStick = new Stick(0.0, 3.0);
 
   public JoystickToSwerve(
       GenericSwerveDrivetrain swerveSubsystem,
@@ -62,6 +63,17 @@ public class JoystickToSwerve extends Command {
     this.robotSpeedFactor = robotSpeedFactor;
   }
 
+  /**
+   * Sets the shaping of the translation inputs, applied to the length of the stick vector
+   *
+   * @param deadzone the radial deadzone, as a fraction of full deflection
+   * @param power the curve exponent
+   */
+  public void setTranslationShaping(double deadzone, double power) {
+    translationStick.setDeadzone(deadzone);
+    translationStick.setPower(power);
+  }
+
   public DoubleSupplier getTurnSpeedFunction() {
     return turnSpdFunction;
   }
@@ -74,23 +86,14 @@ public class JoystickToSwerve extends Command {
     double xInput = (xSpdFunction.getAsDouble()) * robotSpeedFactor;
     double yInput = (ySpdFunction.getAsDouble()) * robotSpeedFactor;
 
-    Translation2d inputTranslation = new Translation2d(xInput, yInput);
-    double magnitude = inputTranslation.getNorm();
-    Rotation2d angle = 0 != xInput || 0 != yInput ? inputTranslation.getAngle() : new Rotation2d();
-
-    double curvedMagnitude = Math.pow(magnitude, 3);
+    translationStick.shape(xInput, yInput);
 
     double turnSpeed = (turnSpdFunction.getAsDouble()) * robotSpeedFactor;
 
     // limit power
-    double xSpeed =
-        curvedMagnitude
-            * angle.getCos()
-            * swerveDrive.getSwerveConstants().getkTeleDriveMaxSpeedMetersPerSecond();
-    double ySpeed =
-        curvedMagnitude
-            * angle.getSin()
-            * swerveDrive.getSwerveConstants().getkTeleDriveMaxSpeedMetersPerSecond();
+    double maxSpeed = swerveDrive.getSwerveConstants().getkTeleDriveMaxSpeedMetersPerSecond();
+    double xSpeed = translationStick.getX() * maxSpeed;
+    double ySpeed = translationStick.getY() * maxSpeed;
     turnSpeed =
         turnSpeed * swerveDrive.getSwerveConstants().getkTeleDriveMaxAngularSpeedRadiansPerSecond();
 
@@ -99,16 +102,18 @@ public class JoystickToSwerve extends Command {
     //
     // System.out.println(swerveDrive.getGyroRate());
     double gyroRate = Units.degreesToRadians(swerveDrive.getGyroRate()) * 0.01;
-    Rotation2d correctedRotation = swerveDrive.getHeading().minus(new Rotation2d(gyroRate));
 
     if (fieldOrientedDrive.getAsBoolean()) {
-      Alliance alliance = allianceSupplier.get();
+      if (allianceSupplier.get() == Alliance.Red) {
+        xSpeed = -xSpeed;
+        ySpeed = -ySpeed;
+      }
+      // Rotate the field relative speeds by the inverse of the corrected heading
+      double correctedRotation = swerveDrive.getHeading().getRadians() - gyroRate;
+      double cos = Math.cos(correctedRotation);
+      double sin = Math.sin(correctedRotation);
       chassisSpeeds =
-          ChassisSpeeds.fromFieldRelativeSpeeds(
-              alliance == Alliance.Red ? -xSpeed : xSpeed,
-              alliance == Alliance.Red ? -ySpeed : ySpeed,
-              turnSpeed,
-              correctedRotation);
+          new ChassisSpeeds(xSpeed * cos + ySpeed * sin, -xSpeed * sin + ySpeed * cos, turnSpeed);
     } else {
       chassisSpeeds = new ChassisSpeeds(xSpeed, ySpeed, turnSpeed);
     }
@@ -43,7 +43,7 @@ public class DriveteamControllerConfiguration {
             axis = axis.rate(it.rate);
           }
           axis = axis.negate(it.invert).deadzone(it.deadband);
-          controller.setAxis(it.channel, axis);
+          controller.setAxis(it.channel, axis.compile());
         });
 
     return controller;
@@ -72,6 +72,12 @@ public class CameraConfigurationJson {
   public double targetHeight = 0;
   /** optional target fiducial id */
   public int[] targetFiducialIds = new int[0];
+  /** Whether a pose provider is polled on its own thread instead of the main loop */
+  public boolean async = false;
+  /** Whether a simulated camera renders its camera streams */
+  public boolean simStreams = false;
+  /** Whether a simulated camera draws a wireframe of the field on its streams */
+  public boolean simWireframe = false;
 
   /**
    * Configures the camera system based on the provided robot.
@@ -225,6 +231,9 @@ public class CameraConfigurationJson {
                 height,
                 fov);
       }
+      if (camera instanceof SimulatedCamera simulatedCamera) {
+        simulatedCamera.setStreamRendering(simStreams, simWireframe);
+      }
     }
     switch (use) {
       case "target":
@@ -233,7 +242,11 @@ public class CameraConfigurationJson {
       case "apriltag":
         {
           if (drivetrain != null) {
-            drivetrain.getPoseEstimator().registerPoseProvider(camera);
+            if (async) {
+              drivetrain.getPoseEstimator().registerAsyncPoseProvider(camera, camera.name());
+            } else {
+              drivetrain.getPoseEstimator().registerPoseProvider(camera);
+            }
           }
           // if (targetFiducialIds.length > 0) {
           // robot.addSubsystem(name, new VisibleTargetSystem(camera, targetHeight));
@@ -249,7 +262,11 @@ public class CameraConfigurationJson {
             // FIX: Undo this
             questNav.withRobotSpeedSupplier(
                 ((GenericSwerveDrivetrain) drivetrain)::getFieldVelocity);
-            drivetrain.getPoseEstimator().registerPoseProvider(questNav);
+            if (async) {
+              drivetrain.getPoseEstimator().registerAsyncPoseProvider(questNav, "questnav");
+            } else {
+              drivetrain.getPoseEstimator().registerPoseProvider(questNav);
+            }
           }
           break;
         }
@@ -26,6 +26,7 @@ import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +35,7 @@ import java.util.function.Supplier;
 import org.frc5010.common.arch.GenericRobot;
 import org.frc5010.common.arch.GenericRobot.LogLevel;
 import org.frc5010.common.arch.GenericSubsystem;
+import org.frc5010.common.auto.pathplanner.PathfindingObstacles;
 import org.frc5010.common.commands.DefaultDriveCommand;
 import org.frc5010.common.constants.Constants;
 import org.frc5010.common.constants.GenericDrivetrainConstants;
@@ -74,6 +76,11 @@ public abstract class GenericDrivetrain extends GenericSubsystem {
       maxRobotDimensionDeviation = 0.0,
       maxObstacleDimensionDeviation = 0.0;
   protected int obstacleAvoidanceResolution = 0;
+  /** Obstacles avoided by pathfinding */
+  protected PathfindingObstacles pathfindingObstacles = new PathfindingObstacles();
+  /** The simulated game piece poses last shown on the field */
+  private final List<Pose3d> displayedGamePiecesA = new ArrayList<>(),
+      displayedGamePiecesB = new ArrayList<>();
   protected double previousLeftXInput = 0.0, previousLeftYInput = 0.0, previousRightXInput = 0.0;
   protected Alert canErrorAlert = new Alert("CAN Tx/Rx is being FLAKY!", AlertType.kError);
   protected Alert robotPositionAlert = new Alert("Robot position is off field", AlertType.kError);
@@ -160,6 +167,7 @@ public abstract class GenericDrivetrain extends GenericSubsystem {
   @Override
   public void periodic() {
     hasIssues.setValue(hasIssues());
+    pathfindingObstacles.update(poseEstimator.getCurrentPose().getTranslation());
     if (RobotBase.isSimulation() || useGlass) {
       updateGlassWidget();
     }
@@ -242,22 +250,34 @@ public abstract class GenericDrivetrain extends GenericSubsystem {
 
   @Override
   public void simulationPeriodic() {
-    int count = 0;
-    List<Pose3d> gpas =
-        SimulatedArena.getInstance().getGamePiecesByType(Constants.Simulation.gamePieceA);
-    for (Pose3d gpa : gpas) {
-      getField2d()
-          .getObject("GPA" + count++)
-          .setPose(new Pose2d(gpa.getX(), gpa.getY(), gpa.getRotation().toRotation2d()));
+    displayGamePieces(
+        "GPA",
+        SimulatedArena.getInstance().getGamePiecesByType(Constants.Simulation.gamePieceA),
+        displayedGamePiecesA);
+    displayGamePieces(
+        "GPB",
+        SimulatedArena.getInstance().getGamePiecesByType(Constants.Simulation.gamePieceB),
+        displayedGamePiecesB);
+  }
+
+  /**
+   * Show the game pieces of a type as one field object, only when any of them moved
+   *
+   * @param name the name of the field object
+   * @param pieces the current game piece poses
+   * @param displayed the game piece poses last shown, updated by this call
+   */
+  private void displayGamePieces(String name, List<Pose3d> pieces, List<Pose3d> displayed) {
+    if (pieces.equals(displayed)) {
+      return;
     }
-    count = 0;
-    List<Pose3d> gpbs =
-        SimulatedArena.getInstance().getGamePiecesByType(Constants.Simulation.gamePieceB);
-    for (Pose3d gpb : gpbs) {
-      getField2d()
-          .getObject("GPB" + count++)
-          .setPose(new Pose2d(gpb.getX(), gpb.getY(), gpb.getRotation().toRotation2d()));
+    displayed.clear();
+    displayed.addAll(pieces);
+    List<Pose2d> poses = new ArrayList<>(pieces.size());
+    for (Pose3d piece : pieces) {
+      poses.add(new Pose2d(piece.getX(), piece.getY(), piece.getRotation().toRotation2d()));
     }
+    getField2d().getObject(name).setPoses(poses);
   }
 
   protected void initializeSimulation(GenericDrivetrainConstants constants) {
@@ -266,25 +286,18 @@ public abstract class GenericDrivetrain extends GenericSubsystem {
     }
     if (Constants.Simulation.loadSimulatedField && RobotBase.isSimulation()) {
       SimulatedArena.getInstance().placeGamePiecesOnField();
-      int count = 0;
-      for (Pose3d gpa :
-          SimulatedArena.getInstance().getGamePiecesByType(Constants.Simulation.gamePieceA)) {
-        getField2d()
-            .getObject("CARPET" + count)
-            .setPose(new Pose2d(gpa.getX(), gpa.getY(), new Rotation2d()));
-        getField2d()
-            .getObject("GPA" + count)
-            .setPose(new Pose2d(gpa.getX(), gpa.getY(), gpa.getRotation().toRotation2d()));
-        count++;
-      }
-      count = 0;
-      for (Pose3d gpb :
-          SimulatedArena.getInstance().getGamePiecesByType(Constants.Simulation.gamePieceB)) {
-        getField2d()
-            .getObject("GPB" + count)
-            .setPose(new Pose2d(gpb.getX(), gpb.getY(), gpb.getRotation().toRotation2d()));
-        count++;
+      List<Pose3d> gpas =
+          SimulatedArena.getInstance().getGamePiecesByType(Constants.Simulation.gamePieceA);
+      List<Pose2d> carpets = new ArrayList<>(gpas.size());
+      for (Pose3d gpa : gpas) {
+        carpets.add(new Pose2d(gpa.getX(), gpa.getY(), new Rotation2d()));
       }
+      getField2d().getObject("CARPET").setPoses(carpets);
+      displayGamePieces("GPA", gpas, displayedGamePiecesA);
+      displayGamePieces(
+          "GPB",
+          SimulatedArena.getInstance().getGamePiecesByType(Constants.Simulation.gamePieceB),
+          displayedGamePiecesB);
     }
   }
 
@@ -327,6 +340,18 @@ public abstract class GenericDrivetrain extends GenericSubsystem {
     this.maxRobotDimensionDeviation = maxRobotDimensionDeviation;
     this.maxObstacleDimensionDeviation = maxObstacleDimensionDeviation;
     this.obstacleAvoidanceResolution = resolution;
+    pathfindingObstacles.setRobotRadius(robotRadius);
+    pathfindingObstacles.setCircularObstacle(
+        "Drivetrain", obstaclePosition.getTranslation(), obstacleRadius);
+  }
+
+  /**
+   * Get the obstacles avoided by pathfinding, e.g. to add opponent robots detected by a camera
+   *
+   * @return the pathfinding obstacles
+   */
+  public PathfindingObstacles getPathfindingObstacles() {
+    return pathfindingObstacles;
   }
 
   public void resetPose(Pose2d pose) {
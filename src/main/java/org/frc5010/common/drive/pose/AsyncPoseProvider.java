@@ -0,0 +1,199 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.frc5010.common.drive.pose;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.Topic;
+import edu.wpi.first.wpilibj.DriverStation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Polls a {@link PoseProvider} on its own daemon thread instead of the main robot loop.
+ *
+ * <p>The polling thread wakes whenever one of the provider's {@link
+ * PoseProvider#getTriggerTopics() trigger topics} changes on NetworkTables, or after the fallback
+ * period if no change arrives. Each poll runs the wrapped provider's {@link PoseProvider#update()}
+ * and hands a copy of the resulting inputs to the main loop through a lock-free queue. On the main
+ * loop, {@link #update()} only merges the completed copies into this provider's own inputs and
+ * logs them, so a slow camera parse can no longer overrun the loop and the camera frame rate is
+ * decoupled from the loop rate.
+ *
+ * <p>The observations are read from the logged inputs, so a replay fuses the same observations that
+ * were logged. The live inputs of the wrapped provider are only touched by the polling thread; pose
+ * resets are handed to the polling thread, and the standard deviations are computed under the same
+ * lock as the update.
+ *
+ * <p>The wrapped provider must not share mutable state with other providers, since it is updated
+ * concurrently with them.
+ */
+public class AsyncPoseProvider implements PoseProvider {
+  /** Fallback polling period when no trigger topic changes */
+  public static final double DEFAULT_POLL_PERIOD = 0.02;
+  /** Maximum number of completed batches held for the main loop before the oldest are dropped */
+  private static final int MAX_PENDING_BATCHES = 10;
+
+  private static final ThreadLocal<Boolean> pollingThread = ThreadLocal.withInitial(() -> false);
+
+  private final PoseProvider provider;
+  private final String name;
+  private final long pollPeriodMicros;
+  private final ConcurrentLinkedQueue<VisionIOInputsAutoLogged> completedBatches =
+      new ConcurrentLinkedQueue<>();
+  private final List<PoseObservation> observations = new ArrayList<>();
+  private final AtomicReference<Pose3d> pendingReset = new AtomicReference<>();
+  private final Object providerLock = new Object();
+  private final Semaphore trigger = new Semaphore(0);
+  private VisionIOInputsAutoLogged input = new VisionIOInputsAutoLogged();
+  private final List<Integer> listenerHandles = new ArrayList<>();
+  private final Thread thread;
+
+  /**
+   * Wrap a provider so that it is polled on its own thread
+   *
+   * @param provider the provider to poll
+   * @param name the name used for the thread and for logging the provider inputs
+   */
+  public AsyncPoseProvider(PoseProvider provider, String name) {
+    this(provider, name, DEFAULT_POLL_PERIOD);
+  }
+
+  /**
+   * Wrap a provider so that it is polled on its own thread
+   *
+   * @param provider the provider to poll
+   * @param name the name used for the thread and for logging the provider inputs
+   * @param pollPeriod the fallback polling period in seconds when no trigger topic changes
+   */
+  public AsyncPoseProvider(PoseProvider provider, String name, double pollPeriod) {
+    this.provider = provider;
+    this.name = name;
+    this.pollPeriodMicros = (long) (pollPeriod * 1e6);
+
+    NetworkTableInstance networkTableInstance = NetworkTableInstance.getDefault();
+    for (Topic topic : provider.getTriggerTopics()) {
+      listenerHandles.add(
+          networkTableInstance.addListener(
+              topic, EnumSet.of(NetworkTableEvent.Kind.kValueAll), event -> trigger.release()));
+    }
+
+    thread = new Thread(this::run, "PoseProvider-" + name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Whether the calling thread is an asynchronous provider polling thread. Work that must happen on
+   * the main loop, such as AdvantageKit input logging, is skipped when this is true.
+   *
+   * @return true when called from a polling thread
+   */
+  public static boolean isPollingThread() {
+    return pollingThread.get();
+  }
+
+  private void run() {
+    pollingThread.set(true);
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        trigger.tryAcquire(pollPeriodMicros, TimeUnit.MICROSECONDS);
+        trigger.drainPermits(); // Coalesce changes that arrived while polling
+        VisionIOInputsAutoLogged snapshot;
+        synchronized (providerLock) {
+          Pose3d reset = pendingReset.getAndSet(null);
+          if (null != reset) {
+            provider.resetPose(reset);
+          }
+          provider.update();
+          // The main loop only ever sees this copy, never the live inputs
+          snapshot = provider.getInputs().clone();
+        }
+        completedBatches.offer(snapshot);
+        while (completedBatches.size() > MAX_PENDING_BATCHES) {
+          completedBatches.poll();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        DriverStation.reportError(
+            "Pose provider " + name + " failed to update: " + e.getMessage(), e.getStackTrace());
+      }
+    }
+  }
+
+  /** Stop polling and remove the NetworkTables listeners. */
+  public void close() {
+    thread.interrupt();
+    NetworkTableInstance networkTableInstance = NetworkTableInstance.getDefault();
+    for (int handle : listenerHandles) {
+      networkTableInstance.removeListener(handle);
+    }
+    listenerHandles.clear();
+  }
+
+  /**
+   * Get the wrapped provider
+   *
+   * @return the wrapped provider
+   */
+  public PoseProvider getProvider() {
+    return provider;
+  }
+
+  /**
+   * Merges the inputs completed since the last loop and logs them. The latest copy provides the
+   * state, the observations of every copy are kept. Main loop only.
+   */
+  @Override
+  public void update() {
+    observations.clear();
+    VisionIOInputsAutoLogged latest = null;
+    VisionIOInputsAutoLogged batch;
+    while ((batch = completedBatches.poll()) != null) {
+      Collections.addAll(observations, batch.poseObservations);
+      latest = batch;
+    }
+    if (null != latest) {
+      input = latest;
+    }
+    input.poseObservations = observations.toArray(new PoseObservation[observations.size()]);
+    logInput(name);
+  }
+
+  @Override
+  public VisionIOInputsAutoLogged getInputs() {
+    return input;
+  }
+
+  /** Hands the reset to the polling thread, which applies it before its next update. */
+  @Override
+  public void resetPose(Pose3d initPose) {
+    pendingReset.set(initPose);
+    trigger.release();
+  }
+
+  @Override
+  public ProviderType getType() {
+    return provider.getType();
+  }
+
+  @Override
+  public Matrix<N3, N1> getStdDeviations(PoseObservation observation) {
+    synchronized (providerLock) {
+      return provider.getStdDeviations(observation);
+    }
+  }
+}
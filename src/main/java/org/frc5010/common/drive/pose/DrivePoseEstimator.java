@@ -13,6 +13,7 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
@@ -22,15 +23,16 @@ import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import org.frc5010.common.arch.GenericSubsystem;
 import org.frc5010.common.commands.calibration.PoseProviderAutoOffset;
 import org.frc5010.common.drive.GenericDrivetrain;
 import org.frc5010.common.drive.pose.PoseProvider.PoseObservation;
 import org.frc5010.common.drive.pose.PoseProvider.ProviderType;
 import org.frc5010.common.subsystems.LEDStripSegment;
+import org.frc5010.common.subsystems.LedPattern;
 import org.frc5010.common.telemetry.DisplayBoolean;
 import org.frc5010.common.vision.AprilTags;
 import org.frc5010.common.vision.VisionConstants;
@@ -47,14 +49,24 @@ public class DrivePoseEstimator extends GenericSubsystem {
   private boolean disableVisionUpdateCommand = false;
   /** List of PoseProviders */
   private List<PoseProvider> poseProviders = new ArrayList<>();
+  /** Updates the providers in parallel */
+  private final PoseProviderUpdater poseProviderUpdater = new PoseProviderUpdater();
 
   private DisplayBoolean aprilTagVisible = DashBoard.makeDisplayBoolean("AprilTagVisible");
   private boolean updatingPoseAcceptor = false;
 
   private static double CONFIDENCE_RESET_THRESHOLD = 0.025;
+  private static double ACCEPTANCE_DISTANCE_THRESHOLD = 0.1;
   private boolean activateAcceptorUpdates = true;
   private boolean poseAcceptable = false;
 
+  // Observations staged from all providers each loop, reused to avoid per-loop allocation
+  private PoseObservation[] stagedObservations = new PoseObservation[16];
+  private PoseProvider[] stagedProviders = new PoseProvider[16];
+  private boolean[] stagedAccepted = new boolean[16];
+  private int[] stagedOrder = new int[16];
+  private int stagedCount = 0;
+
   public static enum State {
     DISABLED_FIELD(ProviderType.FIELD_BASED),
     DISABLED_ENV(ProviderType.ENVIRONMENT_BASED),
@@ -82,8 +94,9 @@ public class DrivePoseEstimator extends GenericSubsystem {
     field2d = poseTracker.getField();
 
     ShuffleboardTab tab = Shuffleboard.getTab("Pose");
-    DashBoard.display("Pose (X,Y)", this::getFormattedPose);
-    DashBoard.display(
+    // The current pose is an immutable snapshot, so these can be formatted off the main loop
+    DashBoard.displayThreadSafe("Pose (X,Y)", this::getFormattedPose);
+    DashBoard.displayThreadSafe(
         "Pose Degrees", () -> getCurrentPose().getRotation().getMeasure().toShortString());
 
     tab.addDoubleArray("Robot Pose3d", () -> getCurrentPose3dArray())
@@ -135,8 +148,29 @@ public class DrivePoseEstimator extends GenericSubsystem {
     };
   }
 
+  /**
+   * Get an LED pattern that shows whether each pose provider is connected, green if connected and
+   * red if not, dividing the LEDs evenly between the providers.
+   *
+   * @param length the number of LEDs
+   * @return the pattern
+   */
+  public LedPattern providerStatusPattern(int length) {
+    int providerLEDLength = Math.max(1, length / Math.max(1, poseProviders.size()));
+    int white = LedPattern.rgb(new Color8Bit(Color.kWhite));
+    int green = LedPattern.rgb(new Color8Bit(Color.kGreen));
+    int red = LedPattern.rgb(new Color8Bit(Color.kRed));
+    return (index, time) -> {
+      int provider = index / providerLEDLength;
+      if (provider >= poseProviders.size()) {
+        return white;
+      }
+      return poseProviders.get(provider).isConnected() ? green : red;
+    };
+  }
+
   public void displayOnLEDSegment(LEDStripSegment ledStrip, int length) {
-    ledStrip.setLedAction(displayProviderStatuses(length));
+    ledStrip.setPattern(providerStatusPattern(length), true);
   }
 
   /**
@@ -148,6 +182,20 @@ public class DrivePoseEstimator extends GenericSubsystem {
     poseProviders.add(provider);
   }
 
+  /**
+   * Register a PoseProvider that is polled on its own thread, triggered by changes to its
+   * NetworkTables topics, rather than on the main robot loop.
+   *
+   * @param provider the PoseProvider to be registered
+   * @param name the name used for the polling thread and for logging the provider inputs
+   * @return the asynchronous wrapper around the provider
+   */
+  public AsyncPoseProvider registerAsyncPoseProvider(PoseProvider provider, String name) {
+    AsyncPoseProvider asyncProvider = new AsyncPoseProvider(provider, name);
+    poseProviders.add(asyncProvider);
+    return asyncProvider;
+  }
+
   /**
    * Set whether to disable the vision update
    *
@@ -212,9 +260,11 @@ public class DrivePoseEstimator extends GenericSubsystem {
 
   @Override
   public void periodic() {
-    poseProviders.forEach(it -> it.update());
+    poseProviderUpdater.updateAll(poseProviders);
     updatePoseObservationFromProviders();
     field2d.setRobotPose(getCurrentPose());
+    // Notifies the dashboard listeners after the update so they see the new pose
+    super.periodic();
   }
 
   private void resetProviderPoses(Pose2d pose) {
@@ -237,66 +287,49 @@ public class DrivePoseEstimator extends GenericSubsystem {
    */
   protected void updatePoseObservationFromProviders() {
     poseTracker.updateLocalMeasurements();
+    poseTracker.recordPoseHistory(Timer.getFPGATimestamp());
     boolean visionUpdated = false;
     boolean accepterUpdating = false;
+    double environmentCaptureTime = Double.NaN;
     poseAcceptable = false;
     if (!disableVisionUpdateCommand) {
-      for (PoseProvider provider :
-          poseProviders.stream()
-              .filter(
-                  it ->
-                      it.isConnected()
-                          && (state.type == ProviderType.ALL || it.getType() == state.type))
-              .collect(Collectors.toList())) {
-        List<PoseObservation> observations = provider.getObservations();
-        for (PoseObservation observation : observations) {
-          boolean rejectPose =
-              (provider.getType() != ProviderType.ENVIRONMENT_BASED)
-                      && observation.tagCount() == 0 // Must have at least one tag
-                  || (observation.tagCount() == 1
-                      && observation.ambiguity()
-                          > VisionConstants.maxAmbiguity) // Cannot be high ambiguity
-                  || Math.abs(observation.pose().getZ())
-                      > VisionConstants.maxZError // Must have realistic Z coordinate
-
-                  // Must be within the field boundaries
-                  || observation.pose().getX() < 0.0
-                  || observation.pose().getX() > AprilTags.aprilTagFieldLayout.getFieldLength()
-                  || observation.pose().getY() < 0.0
-                  || observation.pose().getY() > AprilTags.aprilTagFieldLayout.getFieldWidth();
-
-          Pose3d robotPose = observation.pose();
-          if (!rejectPose) {
-            visionUpdated |= true;
-            poseTracker
-                .getVisionConsumer()
-                .accept(
-                    robotPose.toPose2d(),
-                    observation.timestamp(),
-                    provider.getStdDeviations(observation));
-          }
-
-          // Decides if pose would be good to update
-          poseAcceptable |=
-              activateAcceptorUpdates
-                  && provider.getType() == ProviderType.FIELD_BASED
-                  && (state == State.ENABLED_FIELD || state == State.ALL)
-                  && observation.ambiguity() < CONFIDENCE_RESET_THRESHOLD
-                  && (DriverStation.isDisabled()
-                      || (!DriverStation.isDisabled()
-                          && robotPose
-                                  .getTranslation()
-                                  .getDistance(getCurrentPose3d().getTranslation())
-                              < 0.1));
+      gatherObservations();
+      filterObservations();
+      sortObservationsByTimestamp();
+
+      // Feed the estimator in timestamp order so each measurement is applied against the odometry
+      // buffer in sequence
+      for (int i = 0; i < stagedCount; i++) {
+        int index = stagedOrder[i];
+        PoseObservation observation = stagedObservations[index];
+        PoseProvider provider = stagedProviders[index];
+        if (provider.getType() == ProviderType.ENVIRONMENT_BASED) {
+          environmentCaptureTime = observation.timestamp();
+        }
+        if (stagedAccepted[index]) {
+          visionUpdated = true;
+          poseTracker
+              .getVisionConsumer()
+              .accept(
+                  observation.pose().toPose2d(),
+                  observation.timestamp(),
+                  provider.getStdDeviations(observation));
         }
       }
+      Arrays.fill(stagedObservations, 0, stagedCount, null);
+      Arrays.fill(stagedProviders, 0, stagedCount, null);
     }
 
-    // Accept poses after estimation integration
+    // Accept poses after estimation integration, aligning environment providers to the pose at the
+    // time of their latest frame
     if (activateAcceptorUpdates && (poseAcceptable || state == State.DISABLED_FIELD)) {
+      Pose3d acceptedPose =
+          Double.isNaN(environmentCaptureTime)
+              ? getCurrentPose3d()
+              : new Pose3d(poseTracker.getPoseAt(environmentCaptureTime));
       for (PoseProvider provider2 : poseProviders) {
         if (provider2.getType() == ProviderType.ENVIRONMENT_BASED) {
-          provider2.resetPose(getCurrentPose3d());
+          provider2.resetPose(acceptedPose);
           accepterUpdating = true;
         }
       }
@@ -306,6 +339,88 @@ public class DrivePoseEstimator extends GenericSubsystem {
     updatingPoseAcceptor = accepterUpdating;
   }
 
+  /** Collects the observations of every active provider into the reusable staging arrays. */
+  private void gatherObservations() {
+    stagedCount = 0;
+    for (int p = 0; p < poseProviders.size(); p++) {
+      PoseProvider provider = poseProviders.get(p);
+      if (!provider.isConnected()
+          || (state.type != ProviderType.ALL && provider.getType() != state.type)) {
+        continue;
+      }
+      List<PoseObservation> observations = provider.getObservations();
+      for (int i = 0; i < observations.size(); i++) {
+        if (stagedCount == stagedObservations.length) {
+          int capacity = stagedObservations.length * 2;
+          stagedObservations = Arrays.copyOf(stagedObservations, capacity);
+          stagedProviders = Arrays.copyOf(stagedProviders, capacity);
+          stagedAccepted = Arrays.copyOf(stagedAccepted, capacity);
+          stagedOrder = Arrays.copyOf(stagedOrder, capacity);
+        }
+        stagedObservations[stagedCount] = observations.get(i);
+        stagedProviders[stagedCount] = provider;
+        stagedCount++;
+      }
+    }
+  }
+
+  /**
+   * Runs every rejection filter over the staged observations in a single pass, and decides whether
+   * any of them is good enough to reset the environment-based providers.
+   */
+  private void filterObservations() {
+    PoseHistory poseHistory = poseTracker.getPoseHistory();
+    double fieldLength = AprilTags.aprilTagFieldLayout.getFieldLength();
+    double fieldWidth = AprilTags.aprilTagFieldLayout.getFieldWidth();
+    boolean acceptorActive =
+        activateAcceptorUpdates && (state == State.ENABLED_FIELD || state == State.ALL);
+    boolean disabled = DriverStation.isDisabled();
+    for (int i = 0; i < stagedCount; i++) {
+      PoseObservation observation = stagedObservations[i];
+      ProviderType type = stagedProviders[i].getType();
+      Pose3d pose = observation.pose();
+      double x = pose.getX();
+      double y = pose.getY();
+      boolean rejectPose =
+          (type != ProviderType.ENVIRONMENT_BASED)
+                  && observation.tagCount() == 0 // Must have at least one tag
+              || (observation.tagCount() == 1
+                  && observation.ambiguity()
+                      > VisionConstants.maxAmbiguity) // Cannot be high ambiguity
+              || Math.abs(pose.getZ()) > VisionConstants.maxZError // Must have realistic Z
+
+              // Must be within the field boundaries
+              || x < 0.0
+              || x > fieldLength
+              || y < 0.0
+              || y > fieldWidth;
+      stagedAccepted[i] = !rejectPose;
+
+      // Decides if pose would be good to update, comparing against the pose at capture time
+      poseAcceptable |=
+          acceptorActive
+              && type == ProviderType.FIELD_BASED
+              && observation.ambiguity() < CONFIDENCE_RESET_THRESHOLD
+              && (disabled
+                  || poseHistory.distanceTo(observation.timestamp(), x, y)
+                      < ACCEPTANCE_DISTANCE_THRESHOLD);
+    }
+  }
+
+  /** Orders the staged observation indices by capture time with an allocation-free sort. */
+  private void sortObservationsByTimestamp() {
+    for (int i = 0; i < stagedCount; i++) {
+      int index = i;
+      double timestamp = stagedObservations[index].timestamp();
+      int j = i - 1;
+      while (j >= 0 && stagedObservations[stagedOrder[j]].timestamp() > timestamp) {
+        stagedOrder[j + 1] = stagedOrder[j];
+        j--;
+      }
+      stagedOrder[j + 1] = index;
+    }
+  }
+
   public void setState(State type) {
     state = type;
   }
@@ -319,6 +434,7 @@ public class DrivePoseEstimator extends GenericSubsystem {
    */
   public void resetToPose(Pose2d pose) {
     poseTracker.resetToPose(pose);
+    poseTracker.getPoseHistory().clear();
     resetProviderPoses(pose);
   }
 
@@ -36,6 +36,9 @@ public abstract class GenericPose {
   /** The gyro */
   protected GenericGyro gyro;
 
+  /** History of estimated poses, used to compare delayed observations at their capture time */
+  protected final PoseHistory poseHistory = new PoseHistory(PoseHistory.DEFAULT_CAPACITY);
+
   /**
    * Constructor for GenericPose
    *
@@ -68,6 +71,34 @@ public abstract class GenericPose {
     this.visionConsumer = visionConsumer;
   }
 
+  /**
+   * Get the history of estimated poses.
+   *
+   * @return the pose history
+   */
+  public PoseHistory getPoseHistory() {
+    return poseHistory;
+  }
+
+  /**
+   * Record the current pose into the pose history.
+   *
+   * @param timestamp the FPGA timestamp of the current pose in seconds
+   */
+  public void recordPoseHistory(double timestamp) {
+    poseHistory.add(timestamp, getCurrentPose());
+  }
+
+  /**
+   * Get the estimated pose at a past time, interpolated from the pose history.
+   *
+   * @param timestamp the FPGA timestamp in seconds
+   * @return the pose at that time, or the current pose if no history has been recorded
+   */
+  public Pose2d getPoseAt(double timestamp) {
+    return poseHistory.getPose(timestamp).orElseGet(this::getCurrentPose);
+  }
+
   /**
    * Update the robot pose on the field.
    *
@@ -0,0 +1,217 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.frc5010.common.drive.pose;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.util.Optional;
+
+/**
+ * A fixed-capacity history of timestamped robot poses, stored in primitive circular arrays so that
+ * recording a pose every loop does not allocate. Lookups use a binary search over the timestamps
+ * and interpolate linearly between the bracketing samples, which lets latency-delayed vision
+ * observations be compared against the pose at their capture time instead of the present pose.
+ *
+ * <p>Not thread-safe; record and query from the main robot loop.
+ */
+public class PoseHistory {
+  /** Default capacity, two seconds of history at the 50 Hz robot loop rate */
+  public static final int DEFAULT_CAPACITY = 100;
+
+  private final int capacity;
+  private final double[] timestamps;
+  private final double[] xs;
+  private final double[] ys;
+  private final double[] thetas;
+  /** Physical index of the oldest sample */
+  private int head = 0;
+  /** Number of valid samples */
+  private int size = 0;
+
+  // Result of the last successful interpolate() call
+  private double sampleX;
+  private double sampleY;
+  private double sampleTheta;
+
+  /**
+   * Create a pose history
+   *
+   * @param capacity the maximum number of poses retained
+   */
+  public PoseHistory(int capacity) {
+    if (capacity < 2) {
+      throw new IllegalArgumentException("Pose history needs at least two samples: " + capacity);
+    }
+    this.capacity = capacity;
+    timestamps = new double[capacity];
+    xs = new double[capacity];
+    ys = new double[capacity];
+    thetas = new double[capacity];
+  }
+
+  /**
+   * Record a pose. Samples must be added in increasing timestamp order; a sample older than the
+   * newest one is ignored and a sample with the same timestamp replaces it.
+   *
+   * @param timestamp the timestamp in seconds
+   * @param x the x position in meters
+   * @param y the y position in meters
+   * @param theta the heading in radians
+   */
+  public void add(double timestamp, double x, double y, double theta) {
+    int index;
+    if (size > 0 && timestamp <= timestamps[physicalIndex(size - 1)]) {
+      if (timestamp < timestamps[physicalIndex(size - 1)]) {
+        return;
+      }
+      index = physicalIndex(size - 1);
+    } else if (size < capacity) {
+      index = physicalIndex(size);
+      size++;
+    } else {
+      index = head;
+      head = (head + 1) % capacity;
+    }
+    timestamps[index] = timestamp;
+    xs[index] = x;
+    ys[index] = y;
+    thetas[index] = theta;
+  }
+
+  /**
+   * Record a pose.
+   *
+   * @param timestamp the timestamp in seconds
+   * @param pose the pose
+   */
+  public void add(double timestamp, Pose2d pose) {
+    add(timestamp, pose.getX(), pose.getY(), pose.getRotation().getRadians());
+  }
+
+  /** Discard all recorded poses, e.g. after the pose estimator has been reset. */
+  public void clear() {
+    head = 0;
+    size = 0;
+  }
+
+  /**
+   * Get the number of recorded poses
+   *
+   * @return the number of recorded poses
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the timestamp of the oldest recorded pose
+   *
+   * @return the oldest timestamp, or NaN if empty
+   */
+  public double getOldestTimestamp() {
+    return size == 0 ? Double.NaN : timestamps[head];
+  }
+
+  /**
+   * Get the timestamp of the newest recorded pose
+   *
+   * @return the newest timestamp, or NaN if empty
+   */
+  public double getNewestTimestamp() {
+    return size == 0 ? Double.NaN : timestamps[physicalIndex(size - 1)];
+  }
+
+  /**
+   * Get the planar distance between a point and the interpolated pose at a timestamp. Timestamps
+   * outside the recorded range are clamped to the oldest or newest pose.
+   *
+   * @param timestamp the timestamp in seconds
+   * @param x the x position in meters
+   * @param y the y position in meters
+   * @return the distance in meters, or positive infinity if the history is empty
+   */
+  public double distanceTo(double timestamp, double x, double y) {
+    if (!interpolate(timestamp)) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return Math.hypot(x - sampleX, y - sampleY);
+  }
+
+  /**
+   * Get the interpolated pose at a timestamp. Timestamps outside the recorded range are clamped to
+   * the oldest or newest pose.
+   *
+   * @param timestamp the timestamp in seconds
+   * @return the pose, or empty if the history is empty
+   */
+  public Optional<Pose2d> getPose(double timestamp) {
+    if (!interpolate(timestamp)) {
+      return Optional.empty();
+    }
+    return Optional.of(new Pose2d(sampleX, sampleY, new Rotation2d(sampleTheta)));
+  }
+
+  /**
+   * Interpolate the pose at a timestamp into the sample fields.
+   *
+   * @param timestamp the timestamp in seconds
+   * @return false if the history is empty
+   */
+  private boolean interpolate(double timestamp) {
+    if (size == 0) {
+      return false;
+    }
+    int floor = floorIndex(timestamp);
+    if (floor < 0) {
+      load(physicalIndex(0));
+    } else if (floor >= size - 1) {
+      load(physicalIndex(size - 1));
+    } else {
+      int before = physicalIndex(floor);
+      int after = physicalIndex(floor + 1);
+      double span = timestamps[after] - timestamps[before];
+      double t = span > 0 ? (timestamp - timestamps[before]) / span : 0.0;
+      sampleX = xs[before] + (xs[after] - xs[before]) * t;
+      sampleY = ys[before] + (ys[after] - ys[before]) * t;
+      sampleTheta =
+          MathUtil.angleModulus(
+              thetas[before] + MathUtil.angleModulus(thetas[after] - thetas[before]) * t);
+    }
+    return true;
+  }
+
+  private void load(int index) {
+    sampleX = xs[index];
+    sampleY = ys[index];
+    sampleTheta = thetas[index];
+  }
+
+  /**
+   * Binary search for the newest sample at or before a timestamp.
+   *
+   * @param timestamp the timestamp in seconds
+   * @return the logical index of the sample, or -1 if the timestamp precedes all samples
+   */
+  private int floorIndex(double timestamp) {
+    int low = 0;
+    int high = size - 1;
+    int result = -1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (timestamps[physicalIndex(mid)] <= timestamp) {
+        result = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return result;
+  }
+
+  private int physicalIndex(int logicalIndex) {
+    return (head + logicalIndex) % capacity;
+  }
+}
@@ -10,18 +10,14 @@ import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
-import edu.wpi.first.wpilibj.Alert;
-import edu.wpi.first.wpilibj.Alert.AlertType;
+import edu.wpi.first.networktables.Topic;
 import java.util.Arrays;
 import java.util.List;
 import org.frc5010.common.vision.VisionConstants;
 import org.littletonrobotics.junction.AutoLog;
-import org.littletonrobotics.junction.Logger;
 
 /** Add your docs here. */
 public interface PoseProvider {
-  public VisionIOInputsAutoLogged input = new VisionIOInputsAutoLogged();
-  public Alert disconnectedAlert = new Alert("PoseProvider", AlertType.kWarning);
   public int cameraIndex = 0;
 
   public enum ProviderType {
@@ -63,13 +59,21 @@ public interface PoseProvider {
       PoseObservationType type,
       ProviderType provider) {}
 
+  /*
+   * Returns the inputs of this provider. Each provider owns its inputs, so providers can be updated
+   * concurrently.
+   *
+   * @return The inputs of this provider.
+   */
+  public VisionIOInputsAutoLogged getInputs();
+
   /*
    * Returns the current observations of the robot.
    *
    * @return The current observations of the robot.
    */
   public default List<PoseObservation> getObservations() {
-    return Arrays.asList(input.poseObservations);
+    return Arrays.asList(getInputs().poseObservations);
   }
 
   /*
@@ -79,11 +83,11 @@ public interface PoseProvider {
    * @return Whether the pose provider is currently active.
    */
   public default boolean isConnected() {
-    return input.connected;
+    return getInputs().connected;
   }
 
   public default double getCaptureTime() {
-    return input.captureTime;
+    return getInputs().captureTime;
   }
 
   public void update();
@@ -92,8 +96,23 @@ public interface PoseProvider {
 
   public ProviderType getType();
 
+  /*
+   * Returns the NetworkTables topics that change when the provider has new data, used to wake an
+   * AsyncPoseProvider polling thread.
+   *
+   * @return The topics that signal new data, empty if the provider should be polled periodically.
+   */
+  public default Topic[] getTriggerTopics() {
+    return new Topic[0];
+  }
+
   public default void logInput(String tableName) {
-    Logger.processInputs(VisionConstants.SBTabVisionDisplay + "/Camera " + tableName, input);
+    // Asynchronously polled providers are logged from the main loop by AsyncPoseProvider
+    if (AsyncPoseProvider.isPollingThread()) {
+      return;
+    }
+    PoseProviderUpdater.processInputs(
+        VisionConstants.SBTabVisionDisplay + "/Camera " + tableName, getInputs());
   }
 
   public default Matrix<N3, N1> getStdDeviations(PoseObservation observation) {
@@ -0,0 +1,115 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.frc5010.common.drive.pose;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.littletonrobotics.junction.Logger;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/**
+ * Runs the {@link PoseProvider#update()} of several providers in parallel on a small pool of
+ * worker threads, one per provider up to {@link #MAX_THREADS}, and waits for all of them before
+ * returning so that the observations can be fused on the main loop.
+ *
+ * <p>AdvantageKit inputs may only be processed on the main loop, so inputs logged from a worker
+ * are queued and processed after every provider has finished, before any observation is read.
+ */
+public class PoseProviderUpdater {
+  /** Maximum number of worker threads */
+  public static int MAX_THREADS = 4;
+
+  /** The updater owning the calling worker thread, null on other threads */
+  private static final ThreadLocal<PoseProviderUpdater> workerOwner = new ThreadLocal<>();
+
+  /** An input logged from a worker thread */
+  private record DeferredLog(String key, LoggableInputs inputs) {}
+
+  private final ConcurrentLinkedQueue<DeferredLog> deferredLogs = new ConcurrentLinkedQueue<>();
+  private final List<Future<?>> futures = new ArrayList<>();
+  private ExecutorService executor = null;
+  private int threadCount = 0;
+
+  /**
+   * Process inputs now, or once the providers have been joined when called from a worker thread
+   *
+   * @param key the key of the inputs in the log
+   * @param inputs the inputs
+   */
+  static void processInputs(String key, LoggableInputs inputs) {
+    PoseProviderUpdater owner = workerOwner.get();
+    if (null != owner) {
+      owner.deferredLogs.offer(new DeferredLog(key, inputs));
+    } else {
+      Logger.processInputs(key, inputs);
+    }
+  }
+
+  /**
+   * Update every provider, in parallel when there is more than one, and process the inputs they
+   * logged. Returns once every provider has been updated.
+   *
+   * @param providers the providers to update
+   */
+  public void updateAll(List<PoseProvider> providers) {
+    if (providers.size() <= 1) {
+      providers.forEach(PoseProvider::update);
+      return;
+    }
+    ensureThreads(Math.min(providers.size(), MAX_THREADS));
+    for (PoseProvider provider : providers) {
+      futures.add(executor.submit(provider::update));
+    }
+    try {
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          DriverStation.reportError(
+              "Pose provider failed to update: " + e.getCause().getMessage(),
+              e.getCause().getStackTrace());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      futures.clear();
+    }
+    DeferredLog log;
+    while ((log = deferredLogs.poll()) != null) {
+      Logger.processInputs(log.key(), log.inputs());
+    }
+  }
+
+  private void ensureThreads(int count) {
+    if (count <= threadCount) {
+      return;
+    }
+    if (null != executor) {
+      executor.shutdown();
+    }
+    threadCount = count;
+    executor =
+        Executors.newFixedThreadPool(
+            count,
+            runnable -> {
+              Thread thread =
+                  new Thread(
+                      () -> {
+                        workerOwner.set(this);
+                        runnable.run();
+                      },
+                      "PoseProviderUpdate");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+}
@@ -58,6 +58,7 @@ import org.frc5010.common.constants.RobotConstantsDef;
 import org.frc5010.common.drive.GenericDrivetrain;
 import org.frc5010.common.drive.swerve_utils.PathConstraints5010;
 import org.frc5010.common.drive.swerve_utils.SwerveSetpointGenerator5010;
+import org.frc5010.common.drive.traction.SwerveTractionControl;
 import org.frc5010.common.sensors.Controller;
 import org.json.simple.parser.ParseException;
 import org.littletonrobotics.junction.mechanism.LoggedMechanism2d;
@@ -91,6 +92,15 @@ public class GenericSwerveDrivetrain extends GenericDrivetrain {
     swerveDrive.driveRobotRelative(direction);
   }
 
+  /**
+   * Adds traction control between the drive commands and the module setpoints
+   *
+   * @param tractionControl the traction control, or null to remove it
+   */
+  public void setTractionControl(SwerveTractionControl tractionControl) {
+    swerveDrive.setTractionControl(tractionControl);
+  }
+
   @Override
   public void setAutoBuilder() {
     setupPathPlanner();
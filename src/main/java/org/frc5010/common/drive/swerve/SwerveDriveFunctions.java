@@ -16,11 +16,13 @@ import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import org.frc5010.common.drive.pose.DrivePoseEstimator;
+import org.frc5010.common.drive.traction.SwerveTractionControl;
 import swervelib.SwerveDrive;
 
 /** Add your docs here. */
 public abstract class SwerveDriveFunctions {
   protected GenericSwerveModuleInfo[] moduleInfos;
+  protected SwerveTractionControl tractionControl = null;
 
   public abstract GenericSwerveModuleInfo[] getModulesInfo();
 
@@ -83,6 +85,16 @@ public abstract class SwerveDriveFunctions {
    */
   public abstract AngularVelocity getMaximumModuleAngleVelocity();
 
+  /**
+   * Sets the traction control applied to the module setpoints. Drivetrains that compute their own
+   * module setpoints internally ignore it.
+   *
+   * @param tractionControl the traction control, or null to remove it
+   */
+  public void setTractionControl(SwerveTractionControl tractionControl) {
+    this.tractionControl = tractionControl;
+  }
+
   public Command run(Runnable runnable) {
     return Commands.run(runnable);
   }
@@ -42,8 +42,6 @@ import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine;
 import frc.robot.Constants;
 import frc.robot.Constants.Mode;
 import frc.robot.generated.TunerConstants;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import org.frc5010.common.drive.pose.AkitSwervePose;
 import org.frc5010.common.drive.pose.DrivePoseEstimator;
@@ -60,7 +58,6 @@ public class AkitSwerveDrive extends SwerveDriveFunctions {
       new CANBus(TunerConstants.DrivetrainConstants.CANBusName).isNetworkFD() ? 250.0 : 100.0;
 
   public static DriveTrainSimulationConfig mapleSimConfig = DriveTrainSimulationConfig.Default();
-  static final Lock odometryLock = new ReentrantLock();
   private final GyroIO gyroIO;
   private final GyroIOInputsAutoLogged gyroInputs = new GyroIOInputsAutoLogged();
   private final Module[] modules = new Module[4]; // FL, FR, BL, BR
@@ -73,15 +70,18 @@ public class AkitSwerveDrive extends SwerveDriveFunctions {
 
   private SwerveDriveKinematics kinematics = new SwerveDriveKinematics(moduleTranslations);
   private Rotation2d rawGyroRotation = new Rotation2d();
-  private SwerveModulePosition[] lastModulePositions = // For delta tracking
-      new SwerveModulePosition[] {
-        new SwerveModulePosition(),
-        new SwerveModulePosition(),
-        new SwerveModulePosition(),
-        new SwerveModulePosition()
-      };
+  private final OdometrySampleWorkspace odometryWorkspace = new OdometrySampleWorkspace(modules);
   private SwerveDrivePoseEstimator poseEstimator =
-      new SwerveDrivePoseEstimator(kinematics, rawGyroRotation, lastModulePositions, new Pose2d());
+      new SwerveDrivePoseEstimator(
+          kinematics,
+          rawGyroRotation,
+          new SwerveModulePosition[] {
+            new SwerveModulePosition(),
+            new SwerveModulePosition(),
+            new SwerveModulePosition(),
+            new SwerveModulePosition()
+          },
+          new Pose2d());
 
   private final Consumer<Pose2d> resetSimulationPoseCallBack;
 
@@ -121,13 +121,12 @@ public class AkitSwerveDrive extends SwerveDriveFunctions {
 
   @Override
   public void periodic() {
-    odometryLock.lock(); // Prevents odometry updates while reading data
+    // Odometry samples are drained from lock-free queues, so the odometry threads keep sampling
     gyroIO.updateInputs(gyroInputs);
     Logger.processInputs("Drive/Gyro", gyroInputs);
     for (var module : modules) {
       module.periodic();
     }
-    odometryLock.unlock();
 
     // Stop moving when disabled
     if (DriverStation.isDisabled()) {
@@ -142,23 +141,11 @@ public class AkitSwerveDrive extends SwerveDriveFunctions {
       Logger.recordOutput("SwerveStates/SetpointsOptimized", new SwerveModuleState[] {});
     }
 
-    // Update odometry
-    double[] sampleTimestamps =
-        modules[0].getOdometryTimestamps(); // All signals are sampled together
-    int sampleCount = sampleTimestamps.length;
+    // Update odometry using the preallocated sample workspace
+    int sampleCount = odometryWorkspace.capture();
     for (int i = 0; i < sampleCount; i++) {
       // Read wheel positions and deltas from each module
-      SwerveModulePosition[] modulePositions = new SwerveModulePosition[4];
-      SwerveModulePosition[] moduleDeltas = new SwerveModulePosition[4];
-      for (int moduleIndex = 0; moduleIndex < 4; moduleIndex++) {
-        modulePositions[moduleIndex] = modules[moduleIndex].getOdometryPositions()[i];
-        moduleDeltas[moduleIndex] =
-            new SwerveModulePosition(
-                modulePositions[moduleIndex].distanceMeters
-                    - lastModulePositions[moduleIndex].distanceMeters,
-                modulePositions[moduleIndex].angle);
-        lastModulePositions[moduleIndex] = modulePositions[moduleIndex];
-      }
+      SwerveModulePosition[] modulePositions = odometryWorkspace.loadSample(i);
 
       // Update gyro angle
       if (gyroInputs.connected) {
@@ -166,12 +153,19 @@ public class AkitSwerveDrive extends SwerveDriveFunctions {
         rawGyroRotation = gyroInputs.odometryYawPositions[i];
       } else {
         // Use the angle delta from the kinematics and module deltas
-        Twist2d twist = kinematics.toTwist2d(moduleDeltas);
+        Twist2d twist = kinematics.toTwist2d(odometryWorkspace.getDeltas());
         rawGyroRotation = rawGyroRotation.plus(new Rotation2d(twist.dtheta));
       }
 
       // Apply update
-      poseEstimator.updateWithTime(sampleTimestamps[i], rawGyroRotation, modulePositions);
+      poseEstimator.updateWithTime(
+          odometryWorkspace.getTimestamp(i), rawGyroRotation, modulePositions);
+
+      // Wheel speeds for slip estimation
+      if (null != tractionControl) {
+        tractionControl.addOdometrySample(
+            odometryWorkspace.getTimestamp(i), odometryWorkspace.getDeltas());
+      }
     }
 
     // Update gyro alert
@@ -188,6 +182,9 @@ public class AkitSwerveDrive extends SwerveDriveFunctions {
     ChassisSpeeds discreteSpeeds = ChassisSpeeds.discretize(speeds, 0.02);
     SwerveModuleState[] setpointStates = kinematics.toSwerveModuleStates(discreteSpeeds);
     SwerveDriveKinematics.desaturateWheelSpeeds(setpointStates, maxSpeedMetersPerSec);
+    if (null != tractionControl) {
+      tractionControl.limit(setpointStates);
+    }
 
     // Log unoptimized setpoints
     Logger.recordOutput("SwerveStates/Setpoints", setpointStates);
@@ -14,20 +14,25 @@ import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.wpilibj.Alert;
 import edu.wpi.first.wpilibj.Alert.AlertType;
+import java.util.Arrays;
 import org.littletonrobotics.junction.Logger;
 
 public class Module {
   private final ModuleIO io;
   private final ModuleIOInputsAutoLogged inputs = new ModuleIOInputsAutoLogged();
   private final int index;
+  private final String logKey;
 
   private final Alert driveDisconnectedAlert;
   private final Alert turnDisconnectedAlert;
+  // Reused across cycles, only the first odometrySampleCount entries are valid
   private SwerveModulePosition[] odometryPositions = new SwerveModulePosition[] {};
+  private int odometrySampleCount = 0;
 
   public Module(ModuleIO io, int index) {
     this.io = io;
     this.index = index;
+    this.logKey = "Drive/Module" + Integer.toString(index);
     driveDisconnectedAlert =
         new Alert(
             "Disconnected drive motor on module " + Integer.toString(index) + ".",
@@ -39,20 +44,25 @@ public class Module {
 
   public void periodic() {
     io.updateInputs(inputs);
-    Logger.processInputs("Drive/Module" + Integer.toString(index), inputs);
+    Logger.processInputs(logKey, inputs);
 
     // Calculate positions for odometry
     int sampleCount =
         Math.min(
             inputs.odometryDrivePositionsRad.length,
             inputs.odometryTurnPositions.length); // All signals are sampled together
-    odometryPositions = new SwerveModulePosition[sampleCount];
+    if (odometryPositions.length < sampleCount) {
+      SwerveModulePosition[] grown = Arrays.copyOf(odometryPositions, sampleCount);
+      for (int i = odometryPositions.length; i < sampleCount; i++) {
+        grown[i] = new SwerveModulePosition();
+      }
+      odometryPositions = grown;
+    }
     for (int i = 0; i < sampleCount; i++) {
-      double positionMeters = inputs.odometryDrivePositionsRad[i] * wheelRadiusMeters;
-
-      Rotation2d angle = inputs.odometryTurnPositions[i];
-      odometryPositions[i] = new SwerveModulePosition(positionMeters, angle);
+      odometryPositions[i].distanceMeters = inputs.odometryDrivePositionsRad[i] * wheelRadiusMeters;
+      odometryPositions[i].angle = inputs.odometryTurnPositions[i];
     }
+    odometrySampleCount = sampleCount;
 
     // Update alerts
     driveDisconnectedAlert.set(!inputs.driveConnected);
@@ -107,9 +117,17 @@ public class Module {
     return new SwerveModuleState(getVelocityMetersPerSec(), getAngle());
   }
 
-  /** Returns the module positions received this cycle. */
-  public SwerveModulePosition[] getOdometryPositions() {
-    return odometryPositions;
+  /** Returns the number of odometry samples received this cycle. */
+  public int getOdometrySampleCount() {
+    return odometrySampleCount;
+  }
+
+  /**
+   * Returns the module position of a sample received this cycle. The returned object is reused on
+   * the next cycle.
+   */
+  public SwerveModulePosition getOdometryPosition(int sample) {
+    return odometryPositions[sample];
   }
 
   /** Returns the timestamps of the samples received this cycle. */
@@ -29,7 +29,6 @@ import com.revrobotics.spark.config.SparkMaxConfig;
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.filter.Debouncer;
 import edu.wpi.first.math.geometry.Rotation2d;
-import java.util.Queue;
 import java.util.function.DoubleSupplier;
 
 /**
@@ -50,9 +49,10 @@ public class ModuleIOSpark implements ModuleIO {
   private final SparkClosedLoopController turnController;
 
   // Queue inputs from odometry thread
-  private final Queue<Double> timestampQueue;
-  private final Queue<Double> drivePositionQueue;
-  private final Queue<Double> turnPositionQueue;
+  private final OdometrySampleQueue timestampQueue;
+  private final OdometrySampleQueue drivePositionQueue;
+  private final OdometrySampleQueue turnPositionQueue;
+  private final double[] odometrySamples = new double[OdometrySampleQueue.DEFAULT_CAPACITY];
 
   // Connection debouncers
   private final Debouncer driveConnectedDebounce = new Debouncer(0.5);
@@ -197,18 +197,17 @@ public class ModuleIOSpark implements ModuleIO {
     ifOk(turnSpark, turnSpark::getOutputCurrent, (value) -> inputs.turnCurrentAmps = value);
     inputs.turnConnected = turnConnectedDebounce.calculate(!sparkStickyFault);
 
-    // Update odometry inputs
-    inputs.odometryTimestamps =
-        timestampQueue.stream().mapToDouble((Double value) -> value).toArray();
-    inputs.odometryDrivePositionsRad =
-        drivePositionQueue.stream().mapToDouble((Double value) -> value).toArray();
-    inputs.odometryTurnPositions =
-        turnPositionQueue.stream()
-            .map((Double value) -> new Rotation2d(value).minus(zeroRotation))
-            .toArray(Rotation2d[]::new);
-    timestampQueue.clear();
-    drivePositionQueue.clear();
-    turnPositionQueue.clear();
+    // Update odometry inputs, sized from the timestamps which the odometry thread writes last
+    int sampleCount =
+        Math.min(
+            timestampQueue.size(), Math.min(drivePositionQueue.size(), turnPositionQueue.size()));
+    inputs.odometryTimestamps = timestampQueue.drainToArray(sampleCount);
+    inputs.odometryDrivePositionsRad = drivePositionQueue.drainToArray(sampleCount);
+    turnPositionQueue.drain(odometrySamples, sampleCount);
+    inputs.odometryTurnPositions = new Rotation2d[sampleCount];
+    for (int i = 0; i < sampleCount; i++) {
+      inputs.odometryTurnPositions[i] = new Rotation2d(odometrySamples[i]).minus(zeroRotation);
+    }
   }
 
   @Override
@@ -55,7 +55,6 @@ import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.units.measure.Current;
 import edu.wpi.first.units.measure.Voltage;
 import frc.robot.generated.TunerConstants;
-import java.util.Queue;
 import java.util.function.DoubleSupplier;
 import org.frc5010.common.drive.swerve.akit.util.PhoenixUtil;
 
@@ -86,15 +85,16 @@ public class ModuleIOSparkTalon implements ModuleIO {
       new VelocityTorqueCurrentFOC(0.0);
 
   private final StatusSignal<Angle> drivePosition;
-  private final Queue<Double> drivePositionQueue;
+  private final OdometrySampleQueue drivePositionQueue;
   private final StatusSignal<AngularVelocity> driveVelocity;
   private final StatusSignal<Voltage> driveAppliedVolts;
   private final StatusSignal<Current> driveCurrent;
 
   // Queue inputs from odometry thread
-  private final Queue<Double> timestampQueue;
+  private final OdometrySampleQueue timestampQueue;
 
-  private final Queue<Double> turnPositionQueue;
+  private final OdometrySampleQueue turnPositionQueue;
+  private final double[] odometrySamples = new double[OdometrySampleQueue.DEFAULT_CAPACITY];
   private final SwerveModuleConstants<
           TalonFXConfiguration, TalonFXConfiguration, CANcoderConfiguration>
       constants;
@@ -209,18 +209,23 @@ public class ModuleIOSparkTalon implements ModuleIO {
     ifOk(turnSpark, turnSpark::getOutputCurrent, (value) -> inputs.turnCurrentAmps = value);
     inputs.turnConnected = turnConnectedDebounce.calculate(!sparkStickyFault);
 
-    // Update odometry inputs
-    inputs.odometryTimestamps =
-        timestampQueue.stream().mapToDouble((Double value) -> value).toArray();
-    inputs.odometryDrivePositionsRad =
-        drivePositionQueue.stream().mapToDouble((Double value) -> value).toArray();
-    inputs.odometryTurnPositions =
-        turnPositionQueue.stream()
-            .map((Double value) -> new Rotation2d(value).minus(zeroRotation))
-            .toArray(Rotation2d[]::new);
-    timestampQueue.clear();
-    drivePositionQueue.clear();
-    turnPositionQueue.clear();
+    // Update odometry inputs. The drive queue is fed by the Phoenix odometry thread, the
+    // timestamp and turn queues by the Spark odometry thread, so the oldest surplus of the longer
+    // side is discarded to keep the latest samples paired. The Spark thread writes the turn queue
+    // before the timestamps, so it always holds at least as many samples as the timestamp queue.
+    int timestampCount = timestampQueue.size();
+    int driveCount = drivePositionQueue.size();
+    int sampleCount = Math.min(timestampCount, driveCount);
+    drivePositionQueue.discard(driveCount - sampleCount);
+    timestampQueue.discard(timestampCount - sampleCount);
+    turnPositionQueue.discard(timestampCount - sampleCount);
+    inputs.odometryTimestamps = timestampQueue.drainToArray(sampleCount);
+    inputs.odometryDrivePositionsRad = drivePositionQueue.drainToArray(sampleCount);
+    turnPositionQueue.drain(odometrySamples, sampleCount);
+    inputs.odometryTurnPositions = new Rotation2d[sampleCount];
+    for (int i = 0; i < sampleCount; i++) {
+      inputs.odometryTurnPositions[i] = new Rotation2d(odometrySamples[i]).minus(zeroRotation);
+    }
   }
 
   @Override
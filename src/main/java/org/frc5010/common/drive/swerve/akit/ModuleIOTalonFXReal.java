@@ -16,7 +16,6 @@ package org.frc5010.common.drive.swerve.akit;
 import com.ctre.phoenix6.swerve.SwerveModuleConstants;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.util.Units;
-import java.util.Queue;
 
 /**
  * Module IO implementation for Talon FX drive motor controller, Talon FX turn motor controller, and
@@ -26,9 +25,10 @@ import java.util.Queue;
  */
 public class ModuleIOTalonFXReal extends ModuleIOTalonFX {
   // Queue to read inputs from odometry thread
-  private final Queue<Double> timestampQueue;
-  private final Queue<Double> drivePositionQueue;
-  private final Queue<Double> turnPositionQueue;
+  private final OdometrySampleQueue timestampQueue;
+  private final OdometrySampleQueue drivePositionQueue;
+  private final OdometrySampleQueue turnPositionQueue;
+  private final double[] odometrySamples = new double[OdometrySampleQueue.DEFAULT_CAPACITY];
 
   public ModuleIOTalonFXReal(SwerveModuleConstants constants) {
     super(constants);
@@ -44,15 +44,20 @@ public class ModuleIOTalonFXReal extends ModuleIOTalonFX {
   public void updateInputs(ModuleIOInputs inputs) {
     super.updateInputs(inputs);
 
-    // Update odometry inputs
-    inputs.odometryTimestamps =
-        timestampQueue.stream().mapToDouble((Double value) -> value).toArray();
-    inputs.odometryDrivePositionsRad =
-        drivePositionQueue.stream().mapToDouble(Units::rotationsToRadians).toArray();
-    inputs.odometryTurnPositions =
-        turnPositionQueue.stream().map(Rotation2d::fromRotations).toArray(Rotation2d[]::new);
-    timestampQueue.clear();
-    drivePositionQueue.clear();
-    turnPositionQueue.clear();
+    // Update odometry inputs, sized from the timestamps which the odometry thread writes last
+    int sampleCount =
+        Math.min(
+            timestampQueue.size(), Math.min(drivePositionQueue.size(), turnPositionQueue.size()));
+    inputs.odometryTimestamps = timestampQueue.drainToArray(sampleCount);
+    inputs.odometryDrivePositionsRad = drivePositionQueue.drainToArray(sampleCount);
+    for (int i = 0; i < sampleCount; i++) {
+      inputs.odometryDrivePositionsRad[i] =
+          Units.rotationsToRadians(inputs.odometryDrivePositionsRad[i]);
+    }
+    turnPositionQueue.drain(odometrySamples, sampleCount);
+    inputs.odometryTurnPositions = new Rotation2d[sampleCount];
+    for (int i = 0; i < sampleCount; i++) {
+      inputs.odometryTurnPositions[i] = Rotation2d.fromRotations(odometrySamples[i]);
+    }
   }
 }
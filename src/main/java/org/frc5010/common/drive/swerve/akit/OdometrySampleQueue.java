@@ -0,0 +1,122 @@
+// Copyright (c) 2021-2025 Littleton Robotics
+// http://github.com/Mechanical-Advantage
+//
+// Use of this source code is governed by a BSD
+// license that can be found in the LICENSE file
+// at the root directory of this project.
+
+package org.frc5010.common.drive.swerve.akit;
+
+/**
+ * Single-producer/single-consumer ring buffer of primitive samples, used to hand high-frequency
+ * measurements from an odometry thread to the main robot loop without boxing or locking.
+ *
+ * <p>Only one thread may call {@link #offer(double)} and only one (other) thread may call the
+ * drain methods. The odometry threads write every signal queue before the timestamp queues, so a
+ * consumer that sizes its read from the timestamp queue first will always find at least that many
+ * samples waiting in the signal queues of the same thread.
+ */
+public class OdometrySampleQueue {
+  /** Default number of samples buffered before new samples are dropped. */
+  public static final int DEFAULT_CAPACITY = 20;
+
+  private final double[] buffer;
+  private final int capacity;
+  // Monotonic counters, the slot is the counter modulo the capacity
+  private volatile long writeIndex = 0;
+  private volatile long readIndex = 0;
+
+  public OdometrySampleQueue() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public OdometrySampleQueue(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.buffer = new double[capacity];
+  }
+
+  /**
+   * Adds a sample to the queue. Producer thread only.
+   *
+   * @param value the sample
+   * @return false if the queue was full and the sample was dropped
+   */
+  public boolean offer(double value) {
+    long write = writeIndex;
+    if (write - readIndex >= capacity) {
+      return false;
+    }
+    buffer[(int) (write % capacity)] = value;
+    writeIndex = write + 1; // Publishes the sample to the consumer
+    return true;
+  }
+
+  /** Returns the number of samples currently available to the consumer. */
+  public int size() {
+    return (int) (writeIndex - readIndex);
+  }
+
+  /** Returns the maximum number of samples the queue can hold. */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Moves up to {@code maxCount} samples into the destination array, oldest first. Consumer thread
+   * only.
+   *
+   * @param destination caller-owned array to fill from index 0
+   * @param maxCount the maximum number of samples to remove
+   * @return the number of samples copied
+   */
+  public int drain(double[] destination, int maxCount) {
+    long read = readIndex;
+    int count = (int) Math.min(writeIndex - read, Math.min(maxCount, destination.length));
+    for (int i = 0; i < count; i++) {
+      destination[i] = buffer[(int) ((read + i) % capacity)];
+    }
+    readIndex = read + count; // Releases the slots back to the producer
+    return count;
+  }
+
+  /**
+   * Moves as many samples as fit into the destination array, oldest first. Consumer thread only.
+   *
+   * @param destination caller-owned array to fill from index 0
+   * @return the number of samples copied
+   */
+  public int drain(double[] destination) {
+    return drain(destination, destination.length);
+  }
+
+  /**
+   * Removes exactly {@code count} samples (or fewer if not available) into a new array sized to
+   * the number removed. Consumer thread only.
+   *
+   * @param count the number of samples to remove
+   * @return the removed samples
+   */
+  public double[] drainToArray(int count) {
+    double[] values = new double[Math.min(count, size())];
+    drain(values, values.length);
+    return values;
+  }
+
+  /**
+   * Discards up to {@code count} of the oldest pending samples. Consumer thread only.
+   *
+   * @param count the number of samples to discard
+   */
+  public void discard(int count) {
+    long read = readIndex;
+    readIndex = read + Math.max(0, Math.min(count, writeIndex - read));
+  }
+
+  /** Discards all pending samples. Consumer thread only. */
+  public void clear() {
+    readIndex = writeIndex;
+  }
+}
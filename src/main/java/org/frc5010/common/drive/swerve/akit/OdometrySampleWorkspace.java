@@ -0,0 +1,86 @@
+// Copyright (c) 2021-2025 Littleton Robotics
+// http://github.com/Mechanical-Advantage
+//
+// Use of this source code is governed by a BSD
+// license that can be found in the LICENSE file
+// at the root directory of this project.
+
+package org.frc5010.common.drive.swerve.akit;
+
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+
+/**
+ * Preallocated scratch space for replaying the high-frequency odometry samples received each loop.
+ *
+ * <p>The position and delta arrays returned by {@link #loadSample(int)} and {@link #getDeltas()}
+ * are owned by the workspace and overwritten by the next call, so callers must consume (or copy)
+ * them before loading the next sample. In steady state no heap allocation is performed.
+ */
+public class OdometrySampleWorkspace {
+  private final Module[] modules;
+  private final SwerveModulePosition[] positions;
+  private final SwerveModulePosition[] deltas;
+  private final double[] lastDistances;
+  private double[] timestamps = new double[0];
+  private int sampleCount = 0;
+
+  public OdometrySampleWorkspace(Module[] modules) {
+    this.modules = modules;
+    positions = new SwerveModulePosition[modules.length];
+    deltas = new SwerveModulePosition[modules.length];
+    lastDistances = new double[modules.length];
+    for (int i = 0; i < modules.length; i++) {
+      positions[i] = new SwerveModulePosition();
+      deltas[i] = new SwerveModulePosition();
+    }
+  }
+
+  /**
+   * Captures the samples received by the modules this cycle. Call after every module's {@link
+   * Module#periodic()}.
+   *
+   * @return the number of samples available to {@link #loadSample(int)}
+   */
+  public int capture() {
+    timestamps = modules[0].getOdometryTimestamps(); // All signals are sampled together
+    int count = timestamps.length;
+    for (Module module : modules) {
+      count = Math.min(count, module.getOdometrySampleCount());
+    }
+    sampleCount = count;
+    return count;
+  }
+
+  /** Returns the number of samples captured this cycle. */
+  public int getSampleCount() {
+    return sampleCount;
+  }
+
+  /** Returns the timestamp of the given sample in seconds. */
+  public double getTimestamp(int sample) {
+    return timestamps[sample];
+  }
+
+  /**
+   * Loads the wheel positions of the given sample and updates the per-module deltas from the
+   * previously loaded sample.
+   *
+   * @param sample the sample index, in the range [0, {@link #getSampleCount()})
+   * @return the reused array of module positions for the sample
+   */
+  public SwerveModulePosition[] loadSample(int sample) {
+    for (int moduleIndex = 0; moduleIndex < modules.length; moduleIndex++) {
+      SwerveModulePosition position = modules[moduleIndex].getOdometryPosition(sample);
+      positions[moduleIndex] = position;
+      deltas[moduleIndex].distanceMeters = position.distanceMeters - lastDistances[moduleIndex];
+      deltas[moduleIndex].angle = position.angle;
+      lastDistances[moduleIndex] = position.distanceMeters;
+    }
+    return positions;
+  }
+
+  /** Returns the reused array of module deltas computed by the last {@link #loadSample(int)}. */
+  public SwerveModulePosition[] getDeltas() {
+    return deltas;
+  }
+}
@@ -15,8 +15,6 @@ import edu.wpi.first.wpilibj.RobotController;
 import frc.robot.generated.TunerConstants;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.DoubleSupplier;
@@ -34,9 +32,9 @@ public class PhoenixOdometryThread extends Thread {
       new ReentrantLock(); // Prevents conflicts when registering signals
   private BaseStatusSignal[] phoenixSignals = new BaseStatusSignal[0];
   private final List<DoubleSupplier> genericSignals = new ArrayList<>();
-  private final List<Queue<Double>> phoenixQueues = new ArrayList<>();
-  private final List<Queue<Double>> genericQueues = new ArrayList<>();
-  private final List<Queue<Double>> timestampQueues = new ArrayList<>();
+  private final List<OdometrySampleQueue> phoenixQueues = new ArrayList<>();
+  private final List<OdometrySampleQueue> genericQueues = new ArrayList<>();
+  private final List<OdometrySampleQueue> timestampQueues = new ArrayList<>();
 
   private static boolean isCANFD =
       new CANBus(TunerConstants.DrivetrainConstants.CANBusName).isNetworkFD();
@@ -62,10 +60,9 @@ public class PhoenixOdometryThread extends Thread {
   }
 
   /** Registers a Phoenix signal to be read from the thread. */
-  public Queue<Double> registerSignal(StatusSignal<Angle> signal) {
-    Queue<Double> queue = new ArrayBlockingQueue<>(20);
+  public OdometrySampleQueue registerSignal(StatusSignal<Angle> signal) {
+    OdometrySampleQueue queue = new OdometrySampleQueue();
     signalsLock.lock();
-    AkitSwerveDrive.odometryLock.lock();
     try {
       BaseStatusSignal[] newSignals = new BaseStatusSignal[phoenixSignals.length + 1];
       System.arraycopy(phoenixSignals, 0, newSignals, 0, phoenixSignals.length);
@@ -74,34 +71,31 @@ public class PhoenixOdometryThread extends Thread {
       phoenixQueues.add(queue);
     } finally {
       signalsLock.unlock();
-      AkitSwerveDrive.odometryLock.unlock();
     }
     return queue;
   }
 
   /** Registers a generic signal to be read from the thread. */
-  public Queue<Double> registerSignal(DoubleSupplier signal) {
-    Queue<Double> queue = new ArrayBlockingQueue<>(20);
+  public OdometrySampleQueue registerSignal(DoubleSupplier signal) {
+    OdometrySampleQueue queue = new OdometrySampleQueue();
     signalsLock.lock();
-    AkitSwerveDrive.odometryLock.lock();
     try {
       genericSignals.add(signal);
       genericQueues.add(queue);
     } finally {
       signalsLock.unlock();
-      AkitSwerveDrive.odometryLock.unlock();
     }
     return queue;
   }
 
   /** Returns a new queue that returns timestamp values for each sample. */
-  public Queue<Double> makeTimestampQueue() {
-    Queue<Double> queue = new ArrayBlockingQueue<>(20);
-    AkitSwerveDrive.odometryLock.lock();
+  public OdometrySampleQueue makeTimestampQueue() {
+    OdometrySampleQueue queue = new OdometrySampleQueue();
+    signalsLock.lock();
     try {
       timestampQueues.add(queue);
     } finally {
-      AkitSwerveDrive.odometryLock.unlock();
+      signalsLock.unlock();
     }
     return queue;
   }
@@ -121,15 +115,9 @@ public class PhoenixOdometryThread extends Thread {
           Thread.sleep((long) (1000.0 / AkitSwerveDrive.ODOMETRY_FREQUENCY));
           if (phoenixSignals.length > 0) BaseStatusSignal.refreshAll(phoenixSignals);
         }
-      } catch (InterruptedException e) {
-        e.printStackTrace();
-      } finally {
-        signalsLock.unlock();
-      }
 
-      // Save new data to queues
-      AkitSwerveDrive.odometryLock.lock();
-      try {
+        // Save new data to queues. The queues are single-producer/single-consumer, so the main
+        // loop can drain them concurrently without taking a lock.
         // Sample timestamp is current FPGA time minus average CAN latency
         //     Default timestamps from Phoenix are NOT compatible with
         //     FPGA timestamps, this solution is imperfect but close
@@ -142,7 +130,7 @@ public class PhoenixOdometryThread extends Thread {
           timestamp -= totalLatency / phoenixSignals.length;
         }
 
-        // Add new samples to queues
+        // Add new samples to queues, timestamps last so consumers never see a partial sample
         for (int i = 0; i < phoenixSignals.length; i++) {
           phoenixQueues.get(i).offer(phoenixSignals[i].getValueAsDouble());
         }
@@ -152,8 +140,10 @@ public class PhoenixOdometryThread extends Thread {
         for (int i = 0; i < timestampQueues.size(); i++) {
           timestampQueues.get(i).offer(timestamp);
         }
+      } catch (InterruptedException e) {
+        e.printStackTrace();
       } finally {
-        AkitSwerveDrive.odometryLock.unlock();
+        signalsLock.unlock();
       }
     }
   }
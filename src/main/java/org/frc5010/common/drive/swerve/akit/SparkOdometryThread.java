@@ -13,8 +13,8 @@ import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.RobotController;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.DoubleSupplier;
 
 /**
@@ -24,12 +24,15 @@ import java.util.function.DoubleSupplier;
  * all measurements in the sample are valid.
  */
 public class SparkOdometryThread {
+  private final Lock signalsLock =
+      new ReentrantLock(); // Prevents conflicts when registering signals
   private final List<SparkBase> sparks = new ArrayList<>();
   private final List<DoubleSupplier> sparkSignals = new ArrayList<>();
   private final List<DoubleSupplier> genericSignals = new ArrayList<>();
-  private final List<Queue<Double>> sparkQueues = new ArrayList<>();
-  private final List<Queue<Double>> genericQueues = new ArrayList<>();
-  private final List<Queue<Double>> timestampQueues = new ArrayList<>();
+  private final List<OdometrySampleQueue> sparkQueues = new ArrayList<>();
+  private final List<OdometrySampleQueue> genericQueues = new ArrayList<>();
+  private final List<OdometrySampleQueue> timestampQueues = new ArrayList<>();
+  private double[] sparkValues = new double[0];
 
   private static SparkOdometryThread instance = null;
   private Notifier notifier = new Notifier(this::run);
@@ -52,53 +55,54 @@ public class SparkOdometryThread {
   }
 
   /** Registers a Spark signal to be read from the thread. */
-  public Queue<Double> registerSignal(SparkBase spark, DoubleSupplier signal) {
-    Queue<Double> queue = new ArrayBlockingQueue<>(20);
-    AkitSwerveDrive.odometryLock.lock();
+  public OdometrySampleQueue registerSignal(SparkBase spark, DoubleSupplier signal) {
+    OdometrySampleQueue queue = new OdometrySampleQueue();
+    signalsLock.lock();
     try {
       sparks.add(spark);
       sparkSignals.add(signal);
       sparkQueues.add(queue);
+      sparkValues = new double[sparkSignals.size()];
     } finally {
-      AkitSwerveDrive.odometryLock.unlock();
+      signalsLock.unlock();
     }
     return queue;
   }
 
   /** Registers a generic signal to be read from the thread. */
-  public Queue<Double> registerSignal(DoubleSupplier signal) {
-    Queue<Double> queue = new ArrayBlockingQueue<>(20);
-    AkitSwerveDrive.odometryLock.lock();
+  public OdometrySampleQueue registerSignal(DoubleSupplier signal) {
+    OdometrySampleQueue queue = new OdometrySampleQueue();
+    signalsLock.lock();
     try {
       genericSignals.add(signal);
       genericQueues.add(queue);
     } finally {
-      AkitSwerveDrive.odometryLock.unlock();
+      signalsLock.unlock();
     }
     return queue;
   }
 
   /** Returns a new queue that returns timestamp values for each sample. */
-  public Queue<Double> makeTimestampQueue() {
-    Queue<Double> queue = new ArrayBlockingQueue<>(20);
-    AkitSwerveDrive.odometryLock.lock();
+  public OdometrySampleQueue makeTimestampQueue() {
+    OdometrySampleQueue queue = new OdometrySampleQueue();
+    signalsLock.lock();
     try {
       timestampQueues.add(queue);
     } finally {
-      AkitSwerveDrive.odometryLock.unlock();
+      signalsLock.unlock();
     }
     return queue;
   }
 
   private void run() {
-    // Save new data to queues
-    AkitSwerveDrive.odometryLock.lock();
+    // Save new data to queues. The queues are single-producer/single-consumer, so the main loop
+    // can drain them concurrently without taking a lock.
+    signalsLock.lock();
     try {
       // Get sample timestamp
       double timestamp = RobotController.getFPGATime() / 1e6;
 
       // Read Spark values, mark invalid in case of error
-      double[] sparkValues = new double[sparkSignals.size()];
       boolean isValid = true;
       for (int i = 0; i < sparkSignals.size(); i++) {
         sparkValues[i] = sparkSignals.get(i).getAsDouble();
@@ -107,7 +111,7 @@ public class SparkOdometryThread {
         }
       }
 
-      // If valid, add values to queues
+      // If valid, add values to queues, timestamps last so consumers never see a partial sample
       if (isValid) {
         for (int i = 0; i < sparkSignals.size(); i++) {
           sparkQueues.get(i).offer(sparkValues[i]);
@@ -120,7 +124,7 @@ public class SparkOdometryThread {
         }
       }
     } finally {
-      AkitSwerveDrive.odometryLock.unlock();
+      signalsLock.unlock();
     }
   }
 }
@@ -28,6 +28,12 @@ import org.littletonrobotics.junction.inputs.LoggableInputs;
 public class LocalADStarAK implements Pathfinder {
   private final ADStarIO io = new ADStarIO();
 
+  /** The path built from the logged points, rebuilt only when the path or its inputs change */
+  private PathPlannerPath cachedPath = null;
+  private long cachedPathVersion = -1;
+  private PathConstraints cachedConstraints = null;
+  private GoalEndState cachedGoalEndState = null;
+
   /**
    * Get if a new path has been calculated since the last time a path was retrieved
    *
@@ -59,11 +65,26 @@ public class LocalADStarAK implements Pathfinder {
 
     Logger.processInputs("LocalADStarAK", io);
 
-    if (io.currentPathPoints.isEmpty()) {
+    if (io.currentPathPoints.length == 0) {
       return null;
     }
 
-    return PathPlannerPath.fromPathPoints(io.currentPathPoints, constraints, goalEndState);
+    if (null == cachedPath
+        || cachedPathVersion != io.pathVersion
+        || !constraints.equals(cachedConstraints)
+        || !goalEndState.equals(cachedGoalEndState)) {
+      List<PathPoint> pathPoints = new ArrayList<>(io.currentPathPoints.length / 2);
+      for (int i = 0; i < io.currentPathPoints.length; i += 2) {
+        pathPoints.add(
+            new PathPoint(
+                new Translation2d(io.currentPathPoints[i], io.currentPathPoints[i + 1]), null));
+      }
+      cachedPath = PathPlannerPath.fromPathPoints(pathPoints, constraints, goalEndState);
+      cachedPathVersion = io.pathVersion;
+      cachedConstraints = constraints;
+      cachedGoalEndState = goalEndState;
+    }
+    return cachedPath;
   }
 
   /**
@@ -108,39 +129,32 @@ public class LocalADStarAK implements Pathfinder {
     }
   }
 
+  /**
+   * Inputs of the pathfinder. The path points are kept as one x, y array that is only replaced when
+   * the path changes, along with a version number, so an unchanged path is logged as an unchanged
+   * value and is not rebuilt in replay.
+   */
   private static class ADStarIO implements LoggableInputs {
     public LocalADStar adStar = new LocalADStar();
     public boolean isNewPathAvailable = false;
-    public List<PathPoint> currentPathPoints = Collections.emptyList();
+    public long pathVersion = 0;
+    public double[] currentPathPoints = new double[0];
 
     @Override
     public void toLog(LogTable table) {
       table.put("IsNewPathAvailable", isNewPathAvailable);
-
-      double[] pointsLogged = new double[currentPathPoints.size() * 2];
-      int idx = 0;
-      for (PathPoint point : currentPathPoints) {
-        pointsLogged[idx] = point.position.getX();
-        pointsLogged[idx + 1] = point.position.getY();
-        idx += 2;
-      }
-
-      table.put("CurrentPathPoints", pointsLogged);
+      table.put("PathVersion", pathVersion);
+      table.put("CurrentPathPoints", currentPathPoints);
     }
 
     @Override
     public void fromLog(LogTable table) {
       isNewPathAvailable = table.get("IsNewPathAvailable", false);
-
-      double[] pointsLogged = table.get("CurrentPathPoints", new double[0]);
-
-      List<PathPoint> pathPoints = new ArrayList<>();
-      for (int i = 0; i < pointsLogged.length; i += 2) {
-        pathPoints.add(
-            new PathPoint(new Translation2d(pointsLogged[i], pointsLogged[i + 1]), null));
+      long loggedVersion = table.get("PathVersion", 0L);
+      if (loggedVersion != pathVersion) {
+        pathVersion = loggedVersion;
+        currentPathPoints = table.get("CurrentPathPoints", new double[0]);
       }
-
-      currentPathPoints = pathPoints;
     }
 
     public void updateIsNewPathAvailable() {
@@ -149,12 +163,36 @@ public class LocalADStarAK implements Pathfinder {
 
     public void updateCurrentPathPoints(PathConstraints constraints, GoalEndState goalEndState) {
       PathPlannerPath currentPath = adStar.getCurrentPath(constraints, goalEndState);
+      List<PathPoint> points =
+          null == currentPath ? Collections.emptyList() : currentPath.getAllPathPoints();
+
+      if (!matchesCurrentPath(points)) {
+        // A new array, since the logged value must not change after it was put in the table
+        double[] pointsLogged = new double[points.size() * 2];
+        int idx = 0;
+        for (PathPoint point : points) {
+          pointsLogged[idx] = point.position.getX();
+          pointsLogged[idx + 1] = point.position.getY();
+          idx += 2;
+        }
+        currentPathPoints = pointsLogged;
+        pathVersion++;
+      }
+    }
 
-      if (currentPath != null) {
-        currentPathPoints = currentPath.getAllPathPoints();
-      } else {
-        currentPathPoints = Collections.emptyList();
+    private boolean matchesCurrentPath(List<PathPoint> points) {
+      if (points.size() * 2 != currentPathPoints.length) {
+        return false;
+      }
+      int idx = 0;
+      for (PathPoint point : points) {
+        if (point.position.getX() != currentPathPoints[idx]
+            || point.position.getY() != currentPathPoints[idx + 1]) {
+          return false;
+        }
+        idx += 2;
       }
+      return true;
     }
   }
 }
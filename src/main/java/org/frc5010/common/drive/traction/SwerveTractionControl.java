@@ -4,62 +4,169 @@
 
 package org.frc5010.common.drive.traction;
 
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
-import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import java.util.function.Supplier;
 import org.frc5010.common.arch.GenericSubsystem;
 import org.frc5010.common.telemetry.DisplayDouble;
 
-/** Add your docs here. */
+/**
+ * Traction control for a swerve drive. The slip of each wheel is estimated by comparing the wheel
+ * speed with the speed the module would have at the externally measured chassis speeds, e.g. from
+ * a gyro and vision or an optical sensor. Wheel speeds are taken from the high rate odometry
+ * samples when the drivetrain provides them, otherwise from the module states.
+ *
+ * <p>The drive setpoint of a wheel that spins faster than the ground moves under it is scaled down
+ * by {@link #limit(SwerveModuleState[])}, and recovers gradually once the slip is back under the
+ * threshold. Every buffer is allocated up front, so an update does not allocate.
+ */
 public class SwerveTractionControl extends GenericSubsystem {
+  /** The slip ratio above which the drive setpoint of a wheel is reduced */
+  public static double SLIP_THRESHOLD = 0.15;
+  /** The smallest fraction of a drive setpoint that is kept */
+  public static double MINIMUM_SCALE = 0.3;
+  /** How much of a reduced setpoint is given back on each loop without slip */
+  public static double RECOVERY_PER_LOOP = 0.05;
+  /** Speeds below this are not used to compute a slip ratio, in meters per second */
+  public static double MINIMUM_SPEED_MPS = 0.1;
+
   // Drivetrain Wheel Measurements
   private Supplier<SwerveModuleState[]> swerveModuleStatesSupplier;
   private Supplier<ChassisSpeeds> externallyMeasuredSpeedsSupplier;
-  private SwerveDriveKinematics swerveDriveKinematics;
+  private final Translation2d[] moduleTranslations;
+
+  private final double[] wheelSlips;
+  private final double[] setpointScales;
+  private final double[] sampledDistances;
+  private double sampledTime = 0.0;
+  private double lastSampleTimestamp = Double.NaN;
 
-  private DisplayDouble[] wheelSlipDisplays = new DisplayDouble[4];
+  private DisplayDouble[] wheelSlipDisplays;
 
+  /**
+   * Creates traction control for a swerve drive
+   *
+   * @param swerveModuleStatesSupplier supplies the measured module states, used when no odometry
+   *     samples were added
+   * @param moduleTranslations the positions of the modules relative to the robot center
+   * @param externallyMeasuredSpeedsSupplier supplies the robot relative speeds measured without
+   *     the wheels
+   */
   public SwerveTractionControl(
       Supplier<SwerveModuleState[]> swerveModuleStatesSupplier,
-      SwerveDriveKinematics swerveDriveKinematics,
+      Translation2d[] moduleTranslations,
       Supplier<ChassisSpeeds> externallyMeasuredSpeedsSupplier) {
     super();
-    setupDisplays();
     this.swerveModuleStatesSupplier = swerveModuleStatesSupplier;
     this.externallyMeasuredSpeedsSupplier = externallyMeasuredSpeedsSupplier;
-    this.swerveDriveKinematics = swerveDriveKinematics;
+    this.moduleTranslations = moduleTranslations;
+    wheelSlips = new double[moduleTranslations.length];
+    setpointScales = new double[moduleTranslations.length];
+    sampledDistances = new double[moduleTranslations.length];
+    for (int i = 0; i < setpointScales.length; i++) {
+      setpointScales[i] = 1.0;
+    }
+    setupDisplays();
   }
 
   private void setupDisplays() {
+    wheelSlipDisplays = new DisplayDouble[moduleTranslations.length];
     for (int i = 0; i < wheelSlipDisplays.length; i++) {
       wheelSlipDisplays[i] = DashBoard.makeDisplayDouble("Wheel Slip " + i);
     }
   }
 
   private double calculateSlippage(double measuredSpeed, double predictedSpeed) {
-    return measuredSpeed / predictedSpeed - 1;
+    if (measuredSpeed < MINIMUM_SPEED_MPS && predictedSpeed < MINIMUM_SPEED_MPS) {
+      return 0.0;
+    }
+    return measuredSpeed / Math.max(predictedSpeed, MINIMUM_SPEED_MPS) - 1;
   }
 
-  public double[] getWheelSlip() {
+  /**
+   * Adds a high rate odometry sample. The wheel distances are accumulated until the next {@link
+   * #update()}, which runs in {@link #periodic()}.
+   *
+   * @param timestamp the timestamp of the sample in seconds
+   * @param deltas the distance each wheel travelled since the previous sample
+   */
+  public void addOdometrySample(double timestamp, SwerveModulePosition[] deltas) {
+    if (!Double.isNaN(lastSampleTimestamp) && timestamp > lastSampleTimestamp) {
+      for (int i = 0; i < sampledDistances.length; i++) {
+        sampledDistances[i] += Math.abs(deltas[i].distanceMeters);
+      }
+      sampledTime += timestamp - lastSampleTimestamp;
+    }
+    lastSampleTimestamp = timestamp;
+  }
+
+  /** Estimates the slip of each wheel and updates the setpoint scale of each module. */
+  public void update() {
     ChassisSpeeds externallyMeasuredSpeeds = externallyMeasuredSpeedsSupplier.get();
-    SwerveModuleState[] swerveModuleStates = swerveModuleStatesSupplier.get();
-    SwerveModuleState[] predictedModuleStates =
-        swerveDriveKinematics.toSwerveModuleStates(externallyMeasuredSpeeds);
-    double[] wheelSlips = new double[swerveModuleStates.length];
-
-    for (int i = 0; i < swerveModuleStates.length; i++) {
-      wheelSlips[i] =
-          calculateSlippage(
-              swerveModuleStates[i].speedMetersPerSecond,
-              predictedModuleStates[i].speedMetersPerSecond);
+    SwerveModuleState[] swerveModuleStates =
+        sampledTime > 0.0 ? null : swerveModuleStatesSupplier.get();
+
+    for (int i = 0; i < wheelSlips.length; i++) {
+      // Speed of the module at the measured chassis speeds
+      Translation2d translation = moduleTranslations[i];
+      double predictedSpeed =
+          Math.hypot(
+              externallyMeasuredSpeeds.vxMetersPerSecond
+                  - externallyMeasuredSpeeds.omegaRadiansPerSecond * translation.getY(),
+              externallyMeasuredSpeeds.vyMetersPerSecond
+                  + externallyMeasuredSpeeds.omegaRadiansPerSecond * translation.getX());
+      double wheelSpeed =
+          null == swerveModuleStates
+              ? sampledDistances[i] / sampledTime
+              : Math.abs(swerveModuleStates[i].speedMetersPerSecond);
+      wheelSlips[i] = calculateSlippage(wheelSpeed, predictedSpeed);
+
+      // Cut the setpoint at once when the wheel spins, give it back gradually
+      double targetScale = 1.0;
+      if (wheelSlips[i] > SLIP_THRESHOLD) {
+        targetScale = Math.max(MINIMUM_SCALE, 1.0 - (wheelSlips[i] - SLIP_THRESHOLD));
+      }
+      setpointScales[i] = Math.min(targetScale, setpointScales[i] + RECOVERY_PER_LOOP);
+      sampledDistances[i] = 0.0;
+    }
+    sampledTime = 0.0;
+  }
+
+  /**
+   * Scales down the drive setpoints of the slipping wheels, in place
+   *
+   * @param setpointStates the module setpoints
+   */
+  public void limit(SwerveModuleState[] setpointStates) {
+    for (int i = 0; i < setpointStates.length && i < setpointScales.length; i++) {
+      setpointStates[i].speedMetersPerSecond *= setpointScales[i];
     }
+  }
+
+  /**
+   * Gets the slip ratio of each wheel from the last update. The array is reused by every update.
+   *
+   * @return the slip ratios, positive when the wheel spins faster than the ground
+   */
+  public double[] getWheelSlip() {
     return wheelSlips;
   }
 
+  /**
+   * Gets the fraction of the drive setpoint kept for a module
+   *
+   * @param module the module index
+   * @return the setpoint scale
+   */
+  public double getSetpointScale(int module) {
+    return setpointScales[module];
+  }
+
   @Override
   public void periodic() {
-    double[] wheelSlips = getWheelSlip();
+    update();
     for (int i = 0; i < wheelSlips.length; i++) {
       wheelSlipDisplays[i].setValue(wheelSlips[i]);
     }
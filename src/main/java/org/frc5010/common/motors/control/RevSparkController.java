@@ -47,35 +47,35 @@ public class RevSparkController extends GenericPIDControllerAbsract {
   public void setP(double p) {
     cfg.closedLoop.p(p);
     pidfConfig.setkP(p);
-    motor.updateConfig(cfg);
+    motor.updateConfig("closedLoop.p", p, motor.getConfigAccessor().closedLoop::getP);
   }
 
   @Override
   public void setI(double i) {
     cfg.closedLoop.i(i);
     pidfConfig.setkI(i);
-    motor.updateConfig(cfg);
+    motor.updateConfig("closedLoop.i", i, motor.getConfigAccessor().closedLoop::getI);
   }
 
   @Override
   public void setD(double d) {
     cfg.closedLoop.d(d);
     pidfConfig.setkD(d);
-    motor.updateConfig(cfg);
+    motor.updateConfig("closedLoop.d", d, motor.getConfigAccessor().closedLoop::getD);
   }
 
   @Override
   public void setF(double f) {
     pidfConfig.setkF(f);
     cfg.closedLoop.velocityFF(f);
-    motor.updateConfig(cfg);
+    motor.updateConfig("closedLoop.velocityFF", f, motor.getConfigAccessor().closedLoop::getFF);
   }
 
   @Override
   public void setIZone(double iZone) {
     pidfConfig.setIZone(iZone);
     cfg.closedLoop.iZone(iZone);
-    motor.updateConfig(cfg);
+    motor.updateConfig("closedLoop.iZone", iZone, motor.getConfigAccessor().closedLoop::getIZone);
   }
 
   /**
@@ -89,7 +89,12 @@ public class RevSparkController extends GenericPIDControllerAbsract {
     // Configure the closed loop controller's output range
     cfg.closedLoop.outputRange(min, max);
     // Update the motor configuration to apply changes
-    motor.updateConfig(cfg);
+    motor.beginConfig();
+    motor.updateConfig(
+        "closedLoop.minOutput", min, motor.getConfigAccessor().closedLoop::getMinOutput);
+    motor.updateConfig(
+        "closedLoop.maxOutput", max, motor.getConfigAccessor().closedLoop::getMaxOutput);
+    motor.commitConfig();
   }
 
   @Override
@@ -219,9 +224,11 @@ public class RevSparkController extends GenericPIDControllerAbsract {
 
   @Override
   public void setValues(GenericPID pid) {
+    motor.beginConfig();
     setP(pid.getkP());
     setI(pid.getkI());
     setD(pid.getkD());
+    motor.commitConfig();
   }
 
   @Override
@@ -235,16 +242,49 @@ public class RevSparkController extends GenericPIDControllerAbsract {
     cfg.absoluteEncoder.zeroOffset(offset);
     cfg.absoluteEncoder.inverted(inverted);
     cfg.closedLoop.positionWrappingEnabled(true).positionWrappingInputRange(min, max);
+    motor.beginConfig();
+    motor.updateConfig(
+        "closedLoop.feedbackSensor",
+        () ->
+            motor.getConfigAccessor().closedLoop.getFeedbackSensor()
+                == FeedbackSensor.kAbsoluteEncoder);
+    motor.updateConfig(
+        "absoluteEncoder.zeroOffset",
+        offset,
+        motor.getConfigAccessor().absoluteEncoder::getZeroOffset);
+    motor.updateConfig(
+        "absoluteEncoder.inverted",
+        () -> motor.getConfigAccessor().absoluteEncoder.getInverted() == inverted);
+    motor.updateConfig(
+        "closedLoop.positionWrappingEnabled",
+        motor.getConfigAccessor().closedLoop::getPositionWrappingEnabled);
+    motor.updateConfig(
+        "closedLoop.positionWrappingMinInput",
+        min,
+        motor.getConfigAccessor().closedLoop::getPositionWrappingMinInput);
+    motor.updateConfig(
+        "closedLoop.positionWrappingMaxInput",
+        max,
+        motor.getConfigAccessor().closedLoop::getPositionWrappingMaxInput);
+    motor.commitConfig();
   }
 
   @Override
   public void setProfiledMaxVelocity(double maxVelocity) {
     cfg.closedLoop.maxMotion.maxVelocity(maxVelocity);
+    motor.updateConfig(
+        "closedLoop.maxMotion.maxVelocity",
+        maxVelocity,
+        motor.getConfigAccessor().closedLoop.maxMotion::getMaxVelocity);
   }
 
   @Override
   public void setProfiledMaxAcceleration(double maxAcceleration) {
     cfg.closedLoop.maxMotion.maxAcceleration(maxAcceleration);
+    motor.updateConfig(
+        "closedLoop.maxMotion.maxAcceleration",
+        maxAcceleration,
+        motor.getConfigAccessor().closedLoop.maxMotion::getMaxAcceleration);
   }
 
   @Override
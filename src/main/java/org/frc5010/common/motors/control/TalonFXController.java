@@ -6,9 +6,7 @@ package org.frc5010.common.motors.control;
 
 import static edu.wpi.first.units.Units.Volts;
 
-import com.ctre.phoenix6.StatusCode;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
-import com.ctre.phoenix6.configs.TalonFXConfigurator;
 import com.ctre.phoenix6.controls.ControlRequest;
 import com.ctre.phoenix6.controls.DutyCycleOut;
 import com.ctre.phoenix6.controls.MotionMagicVelocityVoltage;
@@ -20,6 +18,7 @@ import com.ctre.phoenix6.hardware.TalonFX;
 import org.frc5010.common.constants.GenericPID;
 import org.frc5010.common.constants.MotorFeedFwdConstants;
 import org.frc5010.common.motors.hardware.GenericTalonFXMotor;
+import org.frc5010.common.motors.hardware.TalonFXConfigShadow;
 import org.frc5010.common.sensors.encoder.TalonFXEncoder;
 
 /** Add your docs here. */
@@ -28,10 +27,10 @@ public class TalonFXController extends GenericPIDControllerAbsract {
   protected GenericTalonFXMotor motor;
   protected ControlRequest request;
   protected PIDControlType controlType = PIDControlType.DUTY_CYCLE;
-  /** Current TalonFX configuration. */
-  private TalonFXConfiguration configuration = new TalonFXConfiguration();
-  /** Current TalonFX Configurator. */
-  private TalonFXConfigurator cfg;
+  /** Shadow of the TalonFX configuration, shared with the motor. */
+  private final TalonFXConfigShadow shadow;
+  /** Current TalonFX configuration, held by the shadow. */
+  private final TalonFXConfiguration configuration;
 
   protected double reference = 0.0;
   protected double tolerance;
@@ -39,16 +38,11 @@ public class TalonFXController extends GenericPIDControllerAbsract {
   public TalonFXController(GenericTalonFXMotor motor) {
     this.motor = motor;
     internalMotor = (TalonFX) motor.getMotor();
-    cfg = internalMotor.getConfigurator();
-    refreshTalonConfigs();
+    shadow = motor.getConfigShadow();
+    configuration = shadow.getConfiguration();
     setControlType(controlType);
   }
 
-  /** Refreshes the TalonFX configuration to ensure we have the latest PID configuration. */
-  private void refreshTalonConfigs() {
-    cfg.refresh(configuration);
-  }
-
   /**
    * Sends a control request to the TalonFX motor based on the set control type and reference point.
    *
@@ -100,10 +94,10 @@ public class TalonFXController extends GenericPIDControllerAbsract {
   public boolean isAtTarget() {
     switch (controlType) {
       case VELOCITY:
-        double velocity = internalMotor.getVelocity().getValueAsDouble();
+        double velocity = motor.getVelocityRotationsPerSecond();
         return Math.abs(getReference() - velocity) < tolerance;
       case POSITION:
-        double position = internalMotor.getPosition().getValueAsDouble();
+        double position = motor.getPositionRotations();
         return Math.abs(getReference() - position) < tolerance;
       default:
         return false;
@@ -133,15 +127,15 @@ public class TalonFXController extends GenericPIDControllerAbsract {
   /**
    * Sets the PID configuration values for the TalonFX motor.
    *
-   * <p>This function will take the PID values and apply them to the TalonFX motor. The kP, kI, kD,
-   * and kS constants are set using the {@link TalonFXConfigurator} class.
+   * <p>This function will take the PID values and apply them to the TalonFX motor. The kP, kI, and
+   * kD constants are set on the shadow configuration and applied together.
    *
    * @param pid the PID values to set.
    */
   @Override
   public void setValues(GenericPID pid) {
-    cfg.refresh(configuration.Slot0);
-    cfg.apply(configuration.Slot0.withKP(pid.getkP()).withKI(pid.getkI()).withKD(pid.getkD()));
+    configuration.Slot0.withKP(pid.getkP()).withKI(pid.getkI()).withKD(pid.getkD());
+    shadow.update();
   }
 
   /**
@@ -235,7 +229,6 @@ public class TalonFXController extends GenericPIDControllerAbsract {
    */
   @Override
   public double getP() {
-    refreshTalonConfigs();
     return configuration.Slot0.kP;
   }
 
@@ -246,7 +239,6 @@ public class TalonFXController extends GenericPIDControllerAbsract {
    */
   @Override
   public double getI() {
-    refreshTalonConfigs();
     return configuration.Slot0.kI;
   }
 
@@ -257,7 +249,6 @@ public class TalonFXController extends GenericPIDControllerAbsract {
    */
   @Override
   public double getD() {
-    refreshTalonConfigs();
     return configuration.Slot0.kD;
   }
 
@@ -308,9 +299,8 @@ public class TalonFXController extends GenericPIDControllerAbsract {
    */
   @Override
   public void setP(double p) {
-    refreshTalonConfigs();
     configuration.Slot0.kP = p;
-    cfg.apply(configuration.Slot0);
+    shadow.update();
   }
 
   /**
@@ -320,9 +310,8 @@ public class TalonFXController extends GenericPIDControllerAbsract {
    */
   @Override
   public void setI(double i) {
-    refreshTalonConfigs();
     configuration.Slot0.kI = i;
-    cfg.apply(configuration.Slot0);
+    shadow.update();
   }
 
   /**
@@ -332,9 +321,8 @@ public class TalonFXController extends GenericPIDControllerAbsract {
    */
   @Override
   public void setD(double d) {
-    refreshTalonConfigs();
     configuration.Slot0.kD = d;
-    cfg.apply(configuration.Slot0);
+    shadow.update();
   }
 
   /**
@@ -361,44 +349,34 @@ public class TalonFXController extends GenericPIDControllerAbsract {
   @Override
   public void configureAbsoluteControl(double offset, boolean inverted, double min, double max) {
     setControlType(PIDControlType.POSITION);
-    cfg.refresh(configuration.ClosedLoopGeneral);
     configuration.ClosedLoopGeneral.ContinuousWrap = false;
-    cfg.apply(configuration.ClosedLoopGeneral);
+    shadow.update();
   }
 
   @Override
   public void setProfiledMaxVelocity(double maxVelocity) {
-    cfg.refresh(configuration.MotionMagic);
     configuration.MotionMagic.MotionMagicCruiseVelocity = maxVelocity;
-    cfg.apply(configuration.MotionMagic);
+    shadow.update();
   }
 
   @Override
   public void setProfiledMaxAcceleration(double maxAcceleration) {
-    cfg.refresh(configuration.MotionMagic);
     configuration.MotionMagic.MotionMagicAcceleration = maxAcceleration;
     // configuration.MotionMagic.MotionMagicJerk = ((TalonFXEncoder)
     // motor.getMotorEncoder()).velocityToRotationsPerMin(maxAcceleration) / 3600.0;
-    cfg.apply(configuration.MotionMagic);
+    shadow.update();
   }
 
   @Override
   public void setMotorFeedFwd(MotorFeedFwdConstants motorConstants) {
-    cfg.refresh(configuration.Slot0);
     configuration.Slot0.kS = motorConstants.getkS();
     configuration.Slot0.kV = motorConstants.getkV();
     configuration.Slot0.kA = motorConstants.getkA();
-    cfg.apply(configuration.Slot0);
+    shadow.update();
   }
 
   public void applyConfig() {
-    StatusCode status = StatusCode.StatusCodeNotInitialized;
-    for (int i = 0; i < 5; ++i) {
-      status = cfg.apply(configuration);
-      if (status.isOK()) break;
-    }
-    if (!status.isOK()) {
-      System.out.println("Could not configure device. Error: " + status.toString());
-    }
+    shadow.requestFullApply();
+    shadow.update();
   }
 }
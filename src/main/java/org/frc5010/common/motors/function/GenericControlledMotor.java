@@ -20,6 +20,7 @@ import org.frc5010.common.telemetry.DisplayDouble;
 import org.frc5010.common.telemetry.DisplayString;
 import org.frc5010.common.telemetry.DisplayValuesHelper;
 import org.frc5010.common.telemetry.DisplayVoltage;
+import org.frc5010.common.telemetry.TunableGroup;
 
 /** Add your docs here. */
 public abstract class GenericControlledMotor extends GenericFunctionalMotor
@@ -73,6 +74,15 @@ public abstract class GenericControlledMotor extends GenericFunctionalMotor
   protected GenericPIDController controller;
   protected MotorFeedFwdConstants feedFwd;
   protected GenericEncoder encoder;
+  /** The PID and feedforward values tuned from the dashboard at CONFIG log level */
+  protected TunableGroup pidfTunables;
+  /** Pushes the tuned PID and feedforward values to the controller */
+  private final Runnable pushTunedValues =
+      () -> {
+        controller.setValues(new GenericPID(kP.getValue(), kI.getValue(), kD.getValue()));
+        controller.setMotorFeedFwd(
+            new MotorFeedFwdConstants(kS.getValue(), kV.getValue(), kA.getValue()));
+      };
 
   public GenericControlledMotor(
       GenericMotorController motor, String visualName, DisplayValuesHelper tab) {
@@ -82,6 +92,7 @@ public abstract class GenericControlledMotor extends GenericFunctionalMotor
     setDisplayValuesHelper(tab);
     setMotorFeedFwd(new MotorFeedFwdConstants(kS.getValue(), kV.getValue(), kA.getValue()));
     setValues(new GenericPID(kP.getValue(), kI.getValue(), kD.getValue()));
+    pidfTunables.markPushed();
   }
 
   /**
@@ -97,6 +108,7 @@ public abstract class GenericControlledMotor extends GenericFunctionalMotor
     kS = _displayValuesHelper.makeConfigDouble(K_S);
     kV = _displayValuesHelper.makeConfigDouble(K_V);
     kA = _displayValuesHelper.makeConfigDouble(K_A);
+    pidfTunables = new TunableGroup().add(kP, kI, kD, kS, kV, kA);
     iZone = _displayValuesHelper.makeConfigDouble(I_ZONE);
     minOutput = _displayValuesHelper.makeConfigDouble(MIN_OUTPUT);
     maxOutput = _displayValuesHelper.makeConfigDouble(MAX_OUTPUT);
@@ -193,9 +205,8 @@ public abstract class GenericControlledMotor extends GenericFunctionalMotor
   public void setReference(double reference) {
     this.reference.setValue(reference);
     if (GenericRobot.LogLevel.CONFIG == _displayValuesHelper.getLoggingLevel()) {
-      controller.setValues(new GenericPID(kP.getValue(), kI.getValue(), kD.getValue()));
-      controller.setMotorFeedFwd(
-          new MotorFeedFwdConstants(kS.getValue(), kV.getValue(), kA.getValue()));
+      // Only reconfigure the controller when a tuned value changed
+      pidfTunables.pushIfChanged(pushTunedValues);
     }
     controller.setReference(reference);
   }
@@ -18,6 +18,7 @@ import com.revrobotics.spark.SparkMax;
 import com.revrobotics.spark.config.ClosedLoopConfig.FeedbackSensor;
 import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
 import com.revrobotics.spark.config.SparkMaxConfig;
+import com.revrobotics.spark.config.SparkMaxConfigAccessor;
 import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.units.Units;
 import edu.wpi.first.units.measure.AngularVelocity;
@@ -28,7 +29,20 @@ import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.simulation.RoboRioSim;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 import org.frc5010.common.motors.GenericMotorController;
 import org.frc5010.common.motors.GenericPIDController;
@@ -41,8 +55,27 @@ import yams.motorcontrollers.SmartMotorController;
 import yams.motorcontrollers.SmartMotorControllerConfig;
 import yams.motorcontrollers.local.SparkWrapper;
 
-/** A class for a generic REV brushless motor */
+/**
+ * A class for a generic REV brushless motor
+ *
+ * <p>Configuration changes are staged on a {@link SparkMaxConfig} and sent to the controller in a
+ * single configure call. Without an open transaction every setter sends the configuration
+ * immediately. Wrapping setters in {@link #beginConfig()} and {@link #commitConfig()}, or wrapping
+ * the creation of many motors in {@link #beginBatch()} and {@link #commitBatch()}, coalesces the
+ * changes and configures the motors in parallel. The configuration is only persisted to flash when
+ * the parameters on the controller differ from the staged ones.
+ */
 public class GenericRevBrushlessMotor implements GenericMotorController {
+  /** Maximum number of motors configured at the same time by {@link #commitBatch()} */
+  public static int MAX_PARALLEL_CONFIGS = 8;
+  /** Relative tolerance when comparing staged and on-device floating point parameters */
+  private static final double PARAMETER_TOLERANCE = 1e-5;
+
+  /** Depth of the open batches */
+  private static int batchDepth = 0;
+  /** Motors with changes waiting for the outermost batch to be committed */
+  private static final Set<GenericRevBrushlessMotor> batchedMotors = new LinkedHashSet<>();
+
   /** {@link SparkMax} Instance. */
   private final SparkMax motor;
   /** The current limit */
@@ -68,6 +101,15 @@ public class GenericRevBrushlessMotor implements GenericMotorController {
 
   private RevSparkController controller;
 
+  /** Depth of the open configuration transactions on this motor */
+  private int transactionDepth = 0;
+  /** Whether the staged configuration has not been sent to the controller */
+  private boolean configDirty = false;
+  /** Whether a change was staged that cannot be compared to the on-device parameters */
+  private boolean unverifiedChanges = false;
+  /** Checks that the on-device parameters match the staged ones, by parameter name */
+  private final Map<String, BooleanSupplier> deviceChecks = new LinkedHashMap<>();
+
   /**
    * Constructor for a generic REV brushless motor
    *
@@ -76,25 +118,29 @@ public class GenericRevBrushlessMotor implements GenericMotorController {
    * @param currentLimit the current limit
    */
   public GenericRevBrushlessMotor(int port, Motor config, Current currentLimit) {
-    this(port, config);
-    setCurrentLimit(currentLimit);
-  }
-
-  public GenericRevBrushlessMotor(int port, Motor config) {
     motor = new SparkMax(port, MotorType.kBrushless);
     this.config = config;
+    beginConfig();
     factoryDefaults();
     clearStickyFaults();
 
     getMotorEncoder();
     controller = new RevSparkController(this);
 
-    setCurrentLimit(config.currentLimit);
+    setCurrentLimit(currentLimit);
     setMotorSimulationType(config.getMotorSimulationType());
     setMaxRPM(config.maxRpm);
-    cfg.closedLoop.feedbackSensor(
-        FeedbackSensor.kPrimaryEncoder); // Configure feedback of the PID controller as the
-    // integrated encoder.
+    // Configure feedback of the PID controller as the integrated encoder.
+    cfg.closedLoop.feedbackSensor(FeedbackSensor.kPrimaryEncoder);
+    updateConfig(
+        "closedLoop.feedbackSensor",
+        () ->
+            motor.configAccessor.closedLoop.getFeedbackSensor() == FeedbackSensor.kPrimaryEncoder);
+    commitConfig();
+  }
+
+  public GenericRevBrushlessMotor(int port, Motor config) {
+    this(port, config, config.currentLimit);
   }
 
   /**
@@ -125,15 +171,183 @@ public class GenericRevBrushlessMotor implements GenericMotorController {
   }
 
   /**
-   * Update the config for the {@link SparkMax}
+   * Update the config for the {@link SparkMax}. The changes cannot be compared to the on-device
+   * parameters, so the configuration is always persisted when it is sent.
    *
    * @param cfgGiven Given {@link SparkMaxConfig} which should have minimal modifications.
    */
   public void updateConfig(SparkMaxConfig cfgGiven) {
-    cfg.apply(cfgGiven);
-    configureSparkMax(
-        () ->
-            motor.configure(cfg, ResetMode.kNoResetSafeParameters, PersistMode.kPersistParameters));
+    if (cfgGiven != cfg) {
+      cfg.apply(cfgGiven);
+    }
+    unverifiedChanges = true;
+    stageConfig();
+  }
+
+  /**
+   * Stage a change already made to {@link #getConfig()}, along with a check that the controller
+   * holds the new value so that an unchanged configuration is not written to flash again.
+   *
+   * @param parameter the name of the parameter, replacing any earlier check of the same name
+   * @param onDevice returns true if the controller holds the staged value
+   */
+  public void updateConfig(String parameter, BooleanSupplier onDevice) {
+    deviceChecks.put(parameter, onDevice);
+    stageConfig();
+  }
+
+  /**
+   * Stage a change of a floating point parameter already made to {@link #getConfig()}.
+   *
+   * @param parameter the name of the parameter, replacing any earlier check of the same name
+   * @param value the staged value
+   * @param onDevice reads the value held by the controller
+   */
+  public void updateConfig(String parameter, double value, DoubleSupplier onDevice) {
+    updateConfig(parameter, () -> parameterMatches(value, onDevice.getAsDouble()));
+  }
+
+  /**
+   * Open a configuration transaction. Changes are staged until the matching {@link
+   * #commitConfig()} call, so that they are sent in a single configure call.
+   *
+   * @return this motor
+   */
+  public GenericRevBrushlessMotor beginConfig() {
+    transactionDepth++;
+    return this;
+  }
+
+  /**
+   * Close a configuration transaction, sending the staged changes when the outermost transaction
+   * is closed and no batch is open.
+   */
+  public void commitConfig() {
+    if (transactionDepth > 0) {
+      transactionDepth--;
+    }
+    if (transactionDepth == 0 && configDirty) {
+      scheduleApply();
+    }
+  }
+
+  /**
+   * Open a batch across all REV motors, e.g. before the robot creates its subsystems. Changes to
+   * any motor are staged until the matching {@link #commitBatch()} call.
+   */
+  public static synchronized void beginBatch() {
+    batchDepth++;
+  }
+
+  /**
+   * Close a batch, configuring every motor with staged changes in parallel when the outermost
+   * batch is closed.
+   */
+  public static void commitBatch() {
+    List<GenericRevBrushlessMotor> motors;
+    synchronized (GenericRevBrushlessMotor.class) {
+      if (batchDepth > 0) {
+        batchDepth--;
+      }
+      if (batchDepth > 0) {
+        return;
+      }
+      motors = new ArrayList<>(batchedMotors);
+      batchedMotors.clear();
+    }
+    commitConfigs(motors);
+  }
+
+  /**
+   * Send the staged changes of several motors, configuring them in parallel. Motors with an open
+   * transaction are left to their own {@link #commitConfig()}.
+   *
+   * @param motors the motors
+   */
+  public static void commitConfigs(Collection<GenericRevBrushlessMotor> motors) {
+    List<GenericRevBrushlessMotor> pending = new ArrayList<>();
+    for (GenericRevBrushlessMotor motor : motors) {
+      if (motor.transactionDepth == 0 && motor.configDirty) {
+        pending.add(motor);
+      }
+    }
+    if (pending.size() <= 1) {
+      pending.forEach(GenericRevBrushlessMotor::applyConfig);
+      return;
+    }
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(pending.size(), MAX_PARALLEL_CONFIGS));
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (GenericRevBrushlessMotor motor : pending) {
+        futures.add(executor.submit(motor::applyConfig));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      DriverStation.reportError(
+          "Failure configuring motors: " + e.getCause().getMessage(), e.getCause().getStackTrace());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /** Mark the configuration as changed and send it unless a transaction or batch is open. */
+  private void stageConfig() {
+    configDirty = true;
+    if (transactionDepth == 0) {
+      scheduleApply();
+    }
+  }
+
+  /** Send the staged configuration now, or when the open batch is committed. */
+  private void scheduleApply() {
+    synchronized (GenericRevBrushlessMotor.class) {
+      if (batchDepth > 0) {
+        batchedMotors.add(this);
+        return;
+      }
+    }
+    applyConfig();
+  }
+
+  /**
+   * Send the staged configuration in one configure call, persisting it only if the controller
+   * does not already hold it.
+   */
+  private synchronized void applyConfig() {
+    if (!configDirty) {
+      return;
+    }
+    configDirty = false;
+    PersistMode persistMode =
+        deviceMatchesConfig() ? PersistMode.kNoPersistParameters : PersistMode.kPersistParameters;
+    unverifiedChanges = false;
+    configureSparkMax(() -> motor.configure(cfg, ResetMode.kNoResetSafeParameters, persistMode));
+  }
+
+  /**
+   * Check whether the parameters on the controller already match the staged configuration.
+   *
+   * @return true if every staged change can be checked and matches
+   */
+  private boolean deviceMatchesConfig() {
+    if (unverifiedChanges) {
+      return false;
+    }
+    for (BooleanSupplier check : deviceChecks.values()) {
+      if (!check.getAsBoolean()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean parameterMatches(double staged, double onDevice) {
+    return Math.abs(staged - onDevice) <= PARAMETER_TOLERANCE * Math.max(1.0, Math.abs(staged));
   }
 
   /**
@@ -145,6 +359,15 @@ public class GenericRevBrushlessMotor implements GenericMotorController {
     return cfg;
   }
 
+  /**
+   * Get the accessor for the parameters held by the {@link SparkMax}
+   *
+   * @return {@link SparkMaxConfigAccessor}
+   */
+  public SparkMaxConfigAccessor getConfigAccessor() {
+    return motor.configAccessor;
+  }
+
   public SparkClosedLoopController getPIDController() {
     return motor.getClosedLoopController();
   }
@@ -157,7 +380,8 @@ public class GenericRevBrushlessMotor implements GenericMotorController {
   @Override
   public GenericMotorController setVoltageCompensation(double nominalVoltage) {
     cfg.voltageCompensation(nominalVoltage);
-    updateConfig(cfg);
+    updateConfig(
+        "voltageCompensation", nominalVoltage, motor.configAccessor::getVoltageCompensation);
     return this;
   }
 
@@ -169,8 +393,9 @@ public class GenericRevBrushlessMotor implements GenericMotorController {
    */
   @Override
   public GenericMotorController setCurrentLimit(Current currentLimit) {
-    cfg.smartCurrentLimit((int) currentLimit.in(Amps));
-    updateConfig(cfg);
+    int limit = (int) currentLimit.in(Amps);
+    cfg.smartCurrentLimit(limit);
+    updateConfig("smartCurrentLimit", () -> motor.configAccessor.getSmartCurrentLimit() == limit);
     return this;
   }
 
@@ -183,7 +408,10 @@ public class GenericRevBrushlessMotor implements GenericMotorController {
   @Override
   public GenericMotorController setSlewRate(double rate) {
     cfg.closedLoopRampRate(rate).openLoopRampRate(rate);
-    updateConfig(cfg);
+    beginConfig();
+    updateConfig("closedLoopRampRate", rate, motor.configAccessor::getClosedLoopRampRate);
+    updateConfig("openLoopRampRate", rate, motor.configAccessor::getOpenLoopRampRate);
+    commitConfig();
 
     return this;
   }
@@ -196,8 +424,7 @@ public class GenericRevBrushlessMotor implements GenericMotorController {
    */
   @Override
   public GenericMotorController setFollow(GenericMotorController motor) {
-    cfg.follow((SparkBase) motor.getMotor());
-    updateConfig(cfg);
+    setFollow(motor, false);
     return this;
   }
 
@@ -210,8 +437,14 @@ public class GenericRevBrushlessMotor implements GenericMotorController {
    */
   @Override
   public GenericMotorController setFollow(GenericMotorController motor, boolean inverted) {
-    cfg.follow((SparkBase) motor.getMotor(), inverted);
-    updateConfig(cfg);
+    SparkBase leader = (SparkBase) motor.getMotor();
+    int leaderId = leader.getDeviceId();
+    cfg.follow(leader, inverted);
+    updateConfig(
+        "follow",
+        () ->
+            this.motor.configAccessor.getFollowerModeLeaderId() == leaderId
+                && this.motor.configAccessor.getFollowerModeInverted() == inverted);
     return this;
   }
 
@@ -223,11 +456,8 @@ public class GenericRevBrushlessMotor implements GenericMotorController {
    */
   @Override
   public GenericMotorController invert(boolean inverted) {
-    configureSparkMax(
-        () -> {
-          cfg.inverted(inverted);
-          return motor.getLastError();
-        });
+    cfg.inverted(inverted);
+    updateConfig("inverted", () -> motor.configAccessor.getInverted() == inverted);
     return this;
   }
 
@@ -334,8 +564,9 @@ public class GenericRevBrushlessMotor implements GenericMotorController {
    */
   @Override
   public GenericMotorController setMotorBrake(boolean isBrakeMode) {
-    cfg.idleMode(isBrakeMode ? IdleMode.kBrake : IdleMode.kCoast);
-    updateConfig(cfg);
+    IdleMode idleMode = isBrakeMode ? IdleMode.kBrake : IdleMode.kCoast;
+    cfg.idleMode(idleMode);
+    updateConfig("idleMode", () -> motor.configAccessor.getIdleMode() == idleMode);
     return this;
   }
 
@@ -8,8 +8,8 @@ import static edu.wpi.first.units.Units.Amps;
 import static edu.wpi.first.units.Units.Volts;
 
 import com.ctre.phoenix6.SignalLogger;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
-import com.ctre.phoenix6.configs.TalonFXConfigurator;
 import com.ctre.phoenix6.controls.ControlRequest;
 import com.ctre.phoenix6.controls.Follower;
 import com.ctre.phoenix6.controls.VoltageOut;
@@ -17,6 +17,7 @@ import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.InvertedValue;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.units.measure.Current;
 import edu.wpi.first.units.measure.Voltage;
@@ -46,10 +47,10 @@ public class GenericTalonFXMotor implements GenericMotorController {
   protected TalonFXController controller;
   /** TalonFX encoder */
   protected TalonFXEncoder encoder;
-  /** Current TalonFX configuration. */
-  private TalonFXConfiguration configuration = new TalonFXConfiguration();
-  /** Current TalonFX Configurator. */
-  private TalonFXConfigurator cfg;
+  /** Shadow of the TalonFX configuration, applied as a diff of the changed groups. */
+  private final TalonFXConfigShadow shadow;
+  /** Current TalonFX configuration, held by the shadow. */
+  private final TalonFXConfiguration configuration;
   /** Current motor current limit */
   protected int motorCurrentLimit;
   /** Current motor supply current limit */
@@ -68,6 +69,15 @@ public class GenericTalonFXMotor implements GenericMotorController {
   /** Configuration */
   protected Motor config;
 
+  /** Registry that refreshes this motor's signals together with the rest of its CAN bus */
+  private final TalonFXSignalRegistry signals;
+  /** Cached status signals, refreshed through the registry */
+  private final StatusSignal<Voltage> motorVoltage;
+  private final StatusSignal<Double> dutyCycle;
+  private final StatusSignal<Current> torqueCurrent;
+  private final StatusSignal<Angle> position;
+  private final StatusSignal<AngularVelocity> velocity;
+
   /**
    * Construct the TalonFX swerve motor given the ID and CANBus.
    *
@@ -77,8 +87,19 @@ public class GenericTalonFXMotor implements GenericMotorController {
    */
   public GenericTalonFXMotor(int id, Motor config, String canbus) {
     motor = new TalonFX(id, canbus);
-    this.cfg = motor.getConfigurator();
-
+    shadow = new TalonFXConfigShadow(id, motor.getConfigurator());
+    configuration = shadow.getConfiguration();
+    motorVoltage = motor.getMotorVoltage();
+    dutyCycle = motor.getDutyCycle();
+    torqueCurrent = motor.getTorqueCurrent();
+    position = motor.getPosition();
+    velocity = motor.getVelocity();
+    signals = TalonFXSignalRegistry.forBus(canbus);
+    signals.register(motorVoltage, dutyCycle, torqueCurrent, position, velocity);
+
+    // The shadow starts from the defaults and the factory defaults apply it in full, so the
+    // device configuration does not need to be loaded first
+    shadow.begin();
     factoryDefaults();
     clearStickyFaults();
     setCurrentLimit(config.currentLimit);
@@ -88,6 +109,7 @@ public class GenericTalonFXMotor implements GenericMotorController {
     this.config = config;
     encoder = new TalonFXEncoder(this);
     controller = new TalonFXController(this);
+    shadow.commit();
   }
 
   public GenericTalonFXMotor(int canId, Motor config) {
@@ -112,7 +134,8 @@ public class GenericTalonFXMotor implements GenericMotorController {
     if (!factoryDefaultOccurred) {
       configuration.MotorOutput.NeutralMode = NeutralModeValue.Brake;
       configuration.ClosedLoopGeneral.ContinuousWrap = true;
-      cfg.apply(configuration);
+      shadow.requestFullApply();
+      shadow.update();
     }
   }
 
@@ -138,12 +161,11 @@ public class GenericTalonFXMotor implements GenericMotorController {
   }
 
   private void refreshCurrentLimits() {
-    cfg.refresh(configuration.CurrentLimits);
-    cfg.apply(
-        configuration.CurrentLimits.withSupplyCurrentLimit(supplyCurrentLimit)
-            .withStatorCurrentLimit(motorCurrentLimit)
-            .withSupplyCurrentLimitEnable(0 != supplyCurrentLimit)
-            .withStatorCurrentLimitEnable(0 != motorCurrentLimit));
+    configuration.CurrentLimits.withSupplyCurrentLimit(supplyCurrentLimit)
+        .withStatorCurrentLimit(motorCurrentLimit)
+        .withSupplyCurrentLimitEnable(0 != supplyCurrentLimit)
+        .withStatorCurrentLimitEnable(0 != motorCurrentLimit);
+    shadow.update();
   }
 
   public GenericMotorController setSupplyCurrent(Current limit) {
@@ -161,8 +183,8 @@ public class GenericTalonFXMotor implements GenericMotorController {
    */
   @Override
   public GenericMotorController setSlewRate(double rate) {
-    cfg.refresh(configuration.ClosedLoopRamps);
-    cfg.apply(configuration.ClosedLoopRamps.withVoltageClosedLoopRampPeriod(rate));
+    configuration.ClosedLoopRamps.withVoltageClosedLoopRampPeriod(rate);
+    shadow.update();
     return this;
   }
 
@@ -199,10 +221,9 @@ public class GenericTalonFXMotor implements GenericMotorController {
    */
   @Override
   public void setInverted(boolean inverted) {
-    cfg.refresh(configuration.MotorOutput);
     configuration.MotorOutput.withInverted(
         !inverted ? InvertedValue.CounterClockwise_Positive : InvertedValue.Clockwise_Positive);
-    cfg.apply(configuration.MotorOutput);
+    shadow.update();
   }
 
   /**
@@ -354,7 +375,9 @@ public class GenericTalonFXMotor implements GenericMotorController {
    */
   @Override
   public GenericMotorController setMotorBrake(boolean isBrakeMode) {
-    motor.setNeutralMode(isBrakeMode ? NeutralModeValue.Brake : NeutralModeValue.Coast);
+    configuration.MotorOutput.withNeutralMode(
+        isBrakeMode ? NeutralModeValue.Brake : NeutralModeValue.Coast);
+    shadow.update();
     return this;
   }
 
@@ -365,21 +388,70 @@ public class GenericTalonFXMotor implements GenericMotorController {
    */
   @Override
   public void burnFlash() {
-    cfg.apply(configuration);
+    shadow.requestFullApply();
+    shadow.update();
+  }
+
+  /**
+   * Get the shadow configuration of the motor. Changes to its configuration are applied by {@link
+   * TalonFXConfigShadow#update()}.
+   *
+   * @return the shadow configuration
+   */
+  public TalonFXConfigShadow getConfigShadow() {
+    return shadow;
+  }
+
+  /**
+   * Get the registry that refreshes this motor's status signals
+   *
+   * @return the signal registry of the motor's CAN bus
+   */
+  public TalonFXSignalRegistry getSignalRegistry() {
+    return signals;
+  }
+
+  /**
+   * Get the FPGA time at which the cached status signal values were refreshed
+   *
+   * @return the snapshot time in seconds
+   */
+  public double getSignalTimestamp() {
+    return signals.getSnapshotTimestamp();
+  }
+
+  /**
+   * Get the rotor position from the cached status signals
+   *
+   * @return the position in rotations
+   */
+  public double getPositionRotations() {
+    signals.refreshIfStale();
+    return position.getValueAsDouble();
+  }
+
+  /**
+   * Get the rotor velocity from the cached status signals
+   *
+   * @return the velocity in rotations per second
+   */
+  public double getVelocityRotationsPerSecond() {
+    signals.refreshIfStale();
+    return velocity.getValueAsDouble();
   }
 
   /**
    * Retrieves the voltage output of the motor controller.
    *
-   * <p>This method waits for the voltage update within a specified timeout and returns the motor's
-   * voltage in volts.
+   * <p>This method returns the motor's voltage in volts from the bus-wide status signal snapshot.
    *
    * @return The voltage output of the motor in volts.
    */
   @Override
   public double getVoltage() {
     if (RobotBase.isReal()) {
-      return motor.getMotorVoltage().refresh().getValue().in(Volts);
+      signals.refreshIfStale();
+      return motorVoltage.getValueAsDouble();
     } else {
       return encoder.getVoltage();
     }
@@ -388,14 +460,15 @@ public class GenericTalonFXMotor implements GenericMotorController {
   /**
    * Gets the applied output of the motor as a double in the range of -1.0 to 1.0.
    *
-   * <p>This method waits for the applied output update within a specified timeout and returns the
-   * motor's applied output as a double between -1 and 1.
+   * <p>This method returns the motor's applied output as a double between -1 and 1 from the
+   * bus-wide status signal snapshot.
    *
    * @return The motor's applied output as a double between -1 and 1.
    */
   @Override
   public double getAppliedOutput() {
-    return motor.getDutyCycle().refresh().getValue();
+    signals.refreshIfStale();
+    return dutyCycle.getValueAsDouble();
   }
 
   /**
@@ -440,7 +513,6 @@ public class GenericTalonFXMotor implements GenericMotorController {
    */
   @Override
   public boolean getInverted() {
-    cfg.refresh(configuration.MotorOutput);
     return (configuration.MotorOutput.Inverted == InvertedValue.CounterClockwise_Positive
         ? true
         : false);
@@ -465,7 +537,8 @@ public class GenericTalonFXMotor implements GenericMotorController {
    */
   @Override
   public double getOutputCurrent() {
-    return motor.getTorqueCurrent().refresh().getValueAsDouble();
+    signals.refreshIfStale();
+    return torqueCurrent.getValueAsDouble();
   }
 
   /**
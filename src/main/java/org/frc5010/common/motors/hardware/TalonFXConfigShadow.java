@@ -0,0 +1,267 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.frc5010.common.motors.hardware;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.ParentConfiguration;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.configs.TalonFXConfigurator;
+import edu.wpi.first.wpilibj.DriverStation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Local copy of the configuration of a TalonFX. Setters change the copy in memory and {@link
+ * #update()} applies only the configuration groups that changed since they were last applied, so
+ * the device is never read back before a change. Changes can be coalesced with {@link #begin()}
+ * and {@link #commit()}, and changes to many devices can be applied in parallel with {@link
+ * #beginBatch()} and {@link #commitBatch()}.
+ *
+ * <p>The shadow starts from the default configuration rather than calling {@link #load()}, since
+ * {@link GenericTalonFXMotor} resets every device to the shadow with a full apply when it is
+ * created; reading the device first would be a blocking round-trip whose result is overwritten.
+ * Code that adopts a device without resetting it should call {@link #load()} once instead.
+ */
+public class TalonFXConfigShadow {
+  /** Maximum number of devices configured at the same time by {@link #commitBatch()} */
+  public static int MAX_PARALLEL_CONFIGS = 8;
+  /** The maximum number of attempts to apply a configuration group */
+  private static final int MAXIMUM_RETRIES = 5;
+
+  /** Depth of the open batches */
+  private static int batchDepth = 0;
+  /** Shadows with changes waiting for the outermost batch to be committed */
+  private static final Set<TalonFXConfigShadow> batchedShadows = new LinkedHashSet<>();
+
+  /** A configuration group that is applied on its own */
+  private static class Group {
+    final ParentConfiguration config;
+    final Supplier<StatusCode> apply;
+    /** The serialized group as last applied or loaded, null if unknown */
+    String applied = null;
+
+    Group(ParentConfiguration config, Supplier<StatusCode> apply) {
+      this.config = config;
+      this.apply = apply;
+    }
+  }
+
+  private final int deviceId;
+  private final TalonFXConfigurator configurator;
+  private final TalonFXConfiguration configuration = new TalonFXConfiguration();
+  private final List<Group> groups = new ArrayList<>();
+  private int transactionDepth = 0;
+  private boolean fullApplyPending = false;
+
+  /**
+   * Create the shadow configuration of a device, starting from the default configuration. The
+   * device is not read, see {@link #load()}.
+   *
+   * @param deviceId the CAN id of the device, used in error messages
+   * @param configurator the configurator of the device
+   */
+  public TalonFXConfigShadow(int deviceId, TalonFXConfigurator configurator) {
+    this.deviceId = deviceId;
+    this.configurator = configurator;
+    addGroup(configuration.MotorOutput, () -> configurator.apply(configuration.MotorOutput));
+    addGroup(configuration.CurrentLimits, () -> configurator.apply(configuration.CurrentLimits));
+    addGroup(
+        configuration.ClosedLoopRamps, () -> configurator.apply(configuration.ClosedLoopRamps));
+    addGroup(
+        configuration.ClosedLoopGeneral,
+        () -> configurator.apply(configuration.ClosedLoopGeneral));
+    addGroup(configuration.Slot0, () -> configurator.apply(configuration.Slot0));
+    addGroup(configuration.MotionMagic, () -> configurator.apply(configuration.MotionMagic));
+  }
+
+  private void addGroup(ParentConfiguration config, Supplier<StatusCode> apply) {
+    groups.add(new Group(config, apply));
+  }
+
+  /**
+   * Get the configuration held in memory. Changes take effect on the next {@link #update()}.
+   *
+   * @return the configuration
+   */
+  public TalonFXConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  /** Read the whole configuration from the device once, replacing the shadow. */
+  public synchronized void load() {
+    StatusCode status = configurator.refresh(configuration);
+    if (status.isOK()) {
+      snapshotGroups();
+    } else {
+      DriverStation.reportWarning(
+          "Could not read configuration of TalonFX " + deviceId + ": " + status, false);
+    }
+  }
+
+  /** Apply the whole configuration on the next update, e.g. to reset the device to the shadow. */
+  public synchronized void requestFullApply() {
+    fullApplyPending = true;
+  }
+
+  /**
+   * Open a transaction. Changes are held until the matching {@link #commit()} call.
+   *
+   * @return this shadow
+   */
+  public synchronized TalonFXConfigShadow begin() {
+    transactionDepth++;
+    return this;
+  }
+
+  /** Close a transaction, applying the changes when the outermost transaction is closed. */
+  public void commit() {
+    synchronized (this) {
+      if (transactionDepth > 0) {
+        transactionDepth--;
+      }
+      if (transactionDepth > 0) {
+        return;
+      }
+    }
+    update();
+  }
+
+  /** Apply the changed configuration groups, unless a transaction or batch is open. */
+  public void update() {
+    synchronized (this) {
+      if (transactionDepth > 0) {
+        return;
+      }
+    }
+    synchronized (TalonFXConfigShadow.class) {
+      if (batchDepth > 0) {
+        batchedShadows.add(this);
+        return;
+      }
+    }
+    apply();
+  }
+
+  /** Open a batch across all TalonFX devices, e.g. before the robot creates its subsystems. */
+  public static synchronized void beginBatch() {
+    batchDepth++;
+  }
+
+  /**
+   * Close a batch, applying the changes of every device in parallel when the outermost batch is
+   * closed.
+   */
+  public static void commitBatch() {
+    List<TalonFXConfigShadow> shadows;
+    synchronized (TalonFXConfigShadow.class) {
+      if (batchDepth > 0) {
+        batchDepth--;
+      }
+      if (batchDepth > 0) {
+        return;
+      }
+      shadows = new ArrayList<>(batchedShadows);
+      batchedShadows.clear();
+    }
+    applyAll(shadows);
+  }
+
+  /**
+   * Apply the changes of several devices in parallel. Devices with an open transaction are left to
+   * their own {@link #commit()}.
+   *
+   * @param shadows the shadow configurations of the devices
+   */
+  public static void applyAll(Collection<TalonFXConfigShadow> shadows) {
+    List<TalonFXConfigShadow> pending = new ArrayList<>();
+    for (TalonFXConfigShadow shadow : shadows) {
+      synchronized (shadow) {
+        if (shadow.transactionDepth == 0) {
+          pending.add(shadow);
+        }
+      }
+    }
+    if (pending.size() <= 1) {
+      pending.forEach(TalonFXConfigShadow::apply);
+      return;
+    }
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(pending.size(), MAX_PARALLEL_CONFIGS));
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (TalonFXConfigShadow shadow : pending) {
+        futures.add(executor.submit(shadow::apply));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      DriverStation.reportError(
+          "Failure configuring TalonFX devices: " + e.getCause().getMessage(),
+          e.getCause().getStackTrace());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Apply the whole configuration if requested, otherwise only the groups that differ from what
+   * was last applied. Groups that fail to apply are retried on the next update.
+   */
+  private synchronized void apply() {
+    if (fullApplyPending) {
+      StatusCode status = retry(() -> configurator.apply(configuration));
+      if (status.isOK()) {
+        fullApplyPending = false;
+        snapshotGroups();
+      } else {
+        reportFailure(status);
+      }
+      return;
+    }
+    for (Group group : groups) {
+      String serialized = group.config.serialize();
+      if (serialized.equals(group.applied)) {
+        continue;
+      }
+      StatusCode status = retry(group.apply);
+      if (status.isOK()) {
+        group.applied = serialized;
+      } else {
+        reportFailure(status);
+      }
+    }
+  }
+
+  private void snapshotGroups() {
+    for (Group group : groups) {
+      group.applied = group.config.serialize();
+    }
+  }
+
+  private static StatusCode retry(Supplier<StatusCode> apply) {
+    StatusCode status = StatusCode.StatusCodeNotInitialized;
+    for (int i = 0; i < MAXIMUM_RETRIES; ++i) {
+      status = apply.get();
+      if (status.isOK()) break;
+    }
+    return status;
+  }
+
+  private void reportFailure(StatusCode status) {
+    DriverStation.reportWarning(
+        "Could not configure TalonFX " + deviceId + ". Error: " + status, false);
+  }
+}
@@ -0,0 +1,100 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.frc5010.common.motors.hardware;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import edu.wpi.first.wpilibj.Timer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the TalonFX status signals read by the library on one CAN bus so that they can be
+ * refreshed together with a single {@link BaseStatusSignal#refreshAll(BaseStatusSignal...)} call.
+ * Getters read the cached values of the signals after calling {@link #refreshIfStale()}, so the
+ * first read in a loop refreshes every signal on the bus and the remaining reads in that loop are
+ * served from the snapshot.
+ */
+public class TalonFXSignalRegistry {
+  /** Age in seconds after which a read triggers a new refresh, half of the robot loop period */
+  public static double MAX_SNAPSHOT_AGE_SECONDS = 0.01;
+
+  private static final Map<String, TalonFXSignalRegistry> registries = new ConcurrentHashMap<>();
+
+  private final String canbus;
+  private BaseStatusSignal[] signals = new BaseStatusSignal[0];
+  private double snapshotTimestamp = Double.NEGATIVE_INFINITY;
+
+  private TalonFXSignalRegistry(String canbus) {
+    this.canbus = canbus;
+  }
+
+  /**
+   * Get the registry for a CAN bus
+   *
+   * @param canbus the name of the CAN bus, "" for the roboRIO bus
+   * @return the registry
+   */
+  public static TalonFXSignalRegistry forBus(String canbus) {
+    return registries.computeIfAbsent(canbus, TalonFXSignalRegistry::new);
+  }
+
+  /** Refresh the signals of every bus now, e.g. once at the start of the robot loop. */
+  public static void refreshAllBuses() {
+    for (TalonFXSignalRegistry registry : registries.values()) {
+      registry.refresh();
+    }
+  }
+
+  /**
+   * Add signals to be refreshed with the rest of the bus
+   *
+   * @param newSignals the signals
+   */
+  public synchronized void register(BaseStatusSignal... newSignals) {
+    int count = signals.length;
+    signals = Arrays.copyOf(signals, count + newSignals.length);
+    System.arraycopy(newSignals, 0, signals, count, newSignals.length);
+    snapshotTimestamp = Double.NEGATIVE_INFINITY;
+  }
+
+  /** Refresh every registered signal in one call. */
+  public synchronized void refresh() {
+    if (signals.length > 0) {
+      BaseStatusSignal.refreshAll(signals);
+    }
+    snapshotTimestamp = Timer.getFPGATimestamp();
+  }
+
+  /** Refresh every registered signal if the snapshot is older than the maximum age. */
+  public synchronized void refreshIfStale() {
+    if (Timer.getFPGATimestamp() - snapshotTimestamp > MAX_SNAPSHOT_AGE_SECONDS) {
+      refresh();
+    }
+  }
+
+  /** Force the next read to refresh, e.g. after a sensor position is set. */
+  public synchronized void invalidate() {
+    snapshotTimestamp = Double.NEGATIVE_INFINITY;
+  }
+
+  /**
+   * Get the FPGA time at which the cached values were last refreshed
+   *
+   * @return the snapshot time in seconds
+   */
+  public synchronized double getSnapshotTimestamp() {
+    return snapshotTimestamp;
+  }
+
+  /**
+   * Get the name of the CAN bus
+   *
+   * @return the name of the CAN bus
+   */
+  public String getCanbus() {
+    return canbus;
+  }
+}
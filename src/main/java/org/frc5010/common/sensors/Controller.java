@@ -4,13 +4,17 @@
 
 package org.frc5010.common.sensors;
 
+import edu.wpi.first.math.MathSharedStore;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.filter.SlewRateLimiter;
 import edu.wpi.first.wpilibj.GenericHID.HIDType;
 import edu.wpi.first.wpilibj.GenericHID.RumbleType;
 import edu.wpi.first.wpilibj.Joystick;
 import edu.wpi.first.wpilibj2.command.button.JoystickButton;
 import edu.wpi.first.wpilibj2.command.button.POVButton;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /** Add your docs here. */
@@ -162,6 +166,235 @@ public class Controller {
     public Axis scale(double scale) {
       return new Scale(this, scale);
     }
+
+    /**
+     * Flattens the chain of decorators into a single axis that evaluates every stage in one pass,
+     * without calling through each decorator. Chains containing a decorator that cannot be
+     * flattened, such as a custom subclass, are returned unchanged.
+     *
+     * @return the compiled axis
+     */
+    public Axis compile() {
+      List<Axis> chain = new ArrayList<>();
+      Axis source = this;
+      while (null != source.instance) {
+        if (Stage.NONE == source.stage()) {
+          return this;
+        }
+        chain.add(0, source);
+        source = source.instance;
+      }
+      if (Axis.class != source.getClass()) {
+        return this;
+      }
+      return new CompiledAxis(source.port, source.joystick, chain);
+    }
+
+    /**
+     * Gets the stage applied by this decorator when the chain is compiled
+     *
+     * @return the stage, or {@link Stage#NONE} if this axis cannot be compiled
+     */
+    protected Stage stage() {
+      return Stage.NONE;
+    }
+
+    /**
+     * Gets the parameter of the stage applied by this decorator
+     *
+     * @return the parameter
+     */
+    protected double stageParameter() {
+      return 0.0;
+    }
+  }
+
+  /** The stages of a compiled axis */
+  protected static enum Stage {
+    /** Not a compilable decorator */
+    NONE,
+    /** Negates the value */
+    NEGATE,
+    /** Raises the value to a power */
+    CURVE,
+    /** Multiplies the value */
+    SCALE,
+    /** Zeroes values inside the deadzone */
+    DEADZONE,
+    /** Clamps the value */
+    LIMIT,
+    /** Limits the rate of change of the value */
+    RATE
+  }
+
+  /**
+   * An axis whose decorators are flattened into arrays of stages and parameters. The rate limiter
+   * state of each rate stage is kept inline, so an evaluation does not allocate.
+   */
+  private static class CompiledAxis extends Axis {
+    private final Stage[] stages;
+    private final double[] parameters;
+    private final double[] rateValues;
+    private final double[] rateTimes;
+
+    CompiledAxis(int port, Joystick joystick, List<Axis> chain) {
+      super(port, joystick);
+      List<Axis> applied = new ArrayList<>();
+      for (Axis axis : chain) {
+        // A negate decorator that does not invert does nothing
+        if (!(axis instanceof Negate negate) || negate.invert) {
+          applied.add(axis);
+        }
+      }
+      stages = new Stage[applied.size()];
+      parameters = new double[applied.size()];
+      rateValues = new double[applied.size()];
+      rateTimes = new double[applied.size()];
+      double now = MathSharedStore.getTimestamp();
+      for (int i = 0; i < stages.length; i++) {
+        stages[i] = applied.get(i).stage();
+        parameters[i] = applied.get(i).stageParameter();
+        rateTimes[i] = now;
+      }
+    }
+
+    @Override
+    public double get() {
+      double value = joystick.getRawAxis(port);
+      for (int i = 0; i < stages.length; i++) {
+        double parameter = parameters[i];
+        switch (stages[i]) {
+          case NEGATE:
+            value = -value;
+            break;
+          case CURVE:
+            value = Math.pow(value, parameter);
+            break;
+          case SCALE:
+            value = parameter * value;
+            break;
+          case DEADZONE:
+            if (value > -parameter && value < parameter) {
+              value = 0.0;
+            }
+            break;
+          case LIMIT:
+            if (value > parameter) {
+              value = parameter;
+            } else if (value < -parameter) {
+              value = -parameter;
+            }
+            break;
+          case RATE:
+            // Same as SlewRateLimiter.calculate
+            double now = MathSharedStore.getTimestamp();
+            double elapsed = now - rateTimes[i];
+            rateValues[i] +=
+                MathUtil.clamp(value - rateValues[i], -parameter * elapsed, parameter * elapsed);
+            rateTimes[i] = now;
+            value = rateValues[i];
+            break;
+          default:
+            break;
+        }
+      }
+      return value;
+    }
+
+    @Override
+    public Axis compile() {
+      return this;
+    }
+  }
+
+  /**
+   * Shapes two axes of a stick together, e.g. the translation of a swerve drive, so that the
+   * deadzone and curve apply to the length of the stick vector rather than to each axis. The
+   * shaped values are kept in fields, so shaping does not allocate.
+   */
+  public static class Stick {
+    private double deadzone;
+    private double power;
+    private double x = 0.0;
+    private double y = 0.0;
+    private double magnitude = 0.0;
+
+    /**
+     * Creates a stick stage
+     *
+     * @param deadzone the radial deadzone, as a fraction of full deflection
+     * @param power the curve exponent applied to the length of the vector
+     */
+    public Stick(double deadzone, double power) {
+      this.deadzone = deadzone;
+      this.power = power;
+    }
+
+    /**
+     * Sets the radial deadzone
+     *
+     * @param deadzone the radial deadzone, as a fraction of full deflection
+     */
+    public void setDeadzone(double deadzone) {
+      this.deadzone = deadzone;
+    }
+
+    /**
+     * Sets the curve exponent
+     *
+     * @param power the curve exponent applied to the length of the vector
+     */
+    public void setPower(double power) {
+      this.power = power;
+    }
+
+    /**
+     * Shapes a stick position. Inside the deadzone the result is zero, outside it the length is
+     * rescaled to start from zero at the edge of the deadzone, then curved, keeping the direction.
+     *
+     * @param inputX the X axis value
+     * @param inputY the Y axis value
+     */
+    public void shape(double inputX, double inputY) {
+      double length = Math.hypot(inputX, inputY);
+      if (length <= deadzone || 0.0 == length) {
+        x = 0.0;
+        y = 0.0;
+        magnitude = 0.0;
+        return;
+      }
+      double scaled = deadzone > 0.0 ? (length - deadzone) / (1.0 - deadzone) : length;
+      magnitude = Math.pow(scaled, power);
+      x = magnitude * inputX / length;
+      y = magnitude * inputY / length;
+    }
+
+    /**
+     * Gets the shaped X value
+     *
+     * @return the X value
+     */
+    public double getX() {
+      return x;
+    }
+
+    /**
+     * Gets the shaped Y value
+     *
+     * @return the Y value
+     */
+    public double getY() {
+      return y;
+    }
+
+    /**
+     * Gets the length of the shaped vector
+     *
+     * @return the length
+     */
+    public double getMagnitude() {
+      return magnitude;
+    }
   }
 
   private static class Negate extends Axis {
@@ -179,6 +412,11 @@ public class Controller {
     public double get() {
       return invert ? -instance.get() : instance.get();
     }
+
+    @Override
+    protected Stage stage() {
+      return Stage.NEGATE;
+    }
   }
 
   private static class CurvePower extends Axis {
@@ -196,6 +434,16 @@ public class Controller {
     public double get() {
       return Math.pow(instance.get(), power);
     }
+
+    @Override
+    protected Stage stage() {
+      return Stage.CURVE;
+    }
+
+    @Override
+    protected double stageParameter() {
+      return power;
+    }
   }
 
   private static class Scale extends Axis {
@@ -209,6 +457,16 @@ public class Controller {
     public double get() {
       return scale * instance.get();
     }
+
+    @Override
+    protected Stage stage() {
+      return Stage.SCALE;
+    }
+
+    @Override
+    protected double stageParameter() {
+      return scale;
+    }
   }
 
   private static class Deadzone extends Axis {
@@ -226,6 +484,16 @@ public class Controller {
       }
       return input;
     }
+
+    @Override
+    protected Stage stage() {
+      return Stage.DEADZONE;
+    }
+
+    @Override
+    protected double stageParameter() {
+      return deadzone;
+    }
   }
 
   /** Decorates an axis with a hard limit */
@@ -259,11 +527,22 @@ public class Controller {
 
       return input;
     }
+
+    @Override
+    protected Stage stage() {
+      return Stage.LIMIT;
+    }
+
+    @Override
+    protected double stageParameter() {
+      return limit;
+    }
   }
 
   /** Decorates an axis with a rate limiter */
   public static class ChangeRate extends Axis {
     SlewRateLimiter rateLimiter;
+    double limit;
 
     /**
      * Decorates an axis with a rate limiter
@@ -274,6 +553,7 @@ public class Controller {
     public ChangeRate(Axis axis, double limit) {
       instance = axis;
       this.rateLimiter = new SlewRateLimiter(limit);
+      this.limit = limit;
     }
 
     /**
@@ -285,6 +565,16 @@ public class Controller {
       double input = instance.get();
       return rateLimiter.calculate(input);
     }
+
+    @Override
+    protected Stage stage() {
+      return Stage.RATE;
+    }
+
+    @Override
+    protected double stageParameter() {
+      return limit;
+    }
   }
 
   private static enum ButtonNums {
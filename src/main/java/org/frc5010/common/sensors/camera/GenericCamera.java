@@ -12,10 +12,13 @@ import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
 import java.util.ArrayList;
 import java.util.List;
 import org.frc5010.common.drive.pose.PoseProvider;
+import org.frc5010.common.drive.pose.VisionIOInputsAutoLogged;
 import org.frc5010.common.vision.VisionConstants;
 
 /** A generic camera interface */
 public abstract class GenericCamera implements PoseProvider {
+  /** The inputs of this camera */
+  protected final VisionIOInputsAutoLogged input = new VisionIOInputsAutoLogged();
   /** The list of updaters that will be called every time the camera is updated */
   protected List<Runnable> updaters = new ArrayList<>();
   /** The robot-to-camera transform */
@@ -71,6 +74,11 @@ public abstract class GenericCamera implements PoseProvider {
     logInput(name);
   }
 
+  @Override
+  public VisionIOInputsAutoLogged getInputs() {
+    return input;
+  }
+
   /** Updates the vision information from the camera */
   public void updateCameraInfo() {}
 
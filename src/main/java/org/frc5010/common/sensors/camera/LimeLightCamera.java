@@ -8,6 +8,7 @@ import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.networktables.Topic;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -15,9 +16,9 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
-import java.util.stream.Stream;
 import org.frc5010.common.sensors.gyro.GenericGyro;
 import org.frc5010.common.vision.LimelightHelpers;
+import org.frc5010.common.vision.LimelightHelpers.LimelightResults;
 import org.frc5010.common.vision.LimelightHelpers.PoseEstimate;
 import org.frc5010.common.vision.LimelightHelpers.RawFiducial;
 
@@ -27,6 +28,10 @@ public class LimeLightCamera extends GenericCamera {
   Supplier<GenericGyro> gyroSupplier;
   Supplier<Rotation2d> angleResetSupplier;
   BooleanSupplier megatagChooser;
+  LimelightResults latestResults = new LimelightResults();
+  // Reused between frames, one per botpose entry so each tracks its own latest frame
+  private final PoseEstimate megaTag1Estimate = new PoseEstimate();
+  private final PoseEstimate megaTag2Estimate = new PoseEstimate();
 
   /**
    * Constructor with megatag chooser for AprilTags
@@ -80,14 +85,17 @@ public class LimeLightCamera extends GenericCamera {
   }
 
   /**
-   * Get the robot's estimated pose using the Megatag 1 algorithm
+   * Get the robot's estimated pose using the Megatag 1 algorithm. The returned estimate is reused
+   * for later frames.
    *
-   * @return the robot's estimated pose
+   * @return the robot's estimated pose, or empty if the camera has not published a new frame
    */
   protected Optional<PoseEstimate> getRobotPoseEstimateM1() {
     Optional<PoseEstimate> poseEstimate =
         validatePoseEstimate(
-            Optional.ofNullable(LimelightHelpers.getBotPoseEstimate_wpiBlue(name)));
+            LimelightHelpers.getBotPoseEstimate_wpiBlue(name, megaTag1Estimate)
+                ? Optional.of(megaTag1Estimate)
+                : Optional.empty());
 
     if (poseEstimate.isPresent() && null != poseEstimate.get().pose && null != gyroSupplier) {
       SmartDashboard.putNumber("MT1 Angle", poseEstimate.get().pose.getRotation().getDegrees());
@@ -98,14 +106,17 @@ public class LimeLightCamera extends GenericCamera {
   }
 
   /**
-   * Get the robot's estimated pose using the Megatag 2 algorithm
+   * Get the robot's estimated pose using the Megatag 2 algorithm. The returned estimate is reused
+   * for later frames.
    *
-   * @return the robot's estimated pose
+   * @return the robot's estimated pose, or empty if the camera has not published a new frame
    */
   protected Optional<PoseEstimate> getRobotPoseEstimateM2() {
     Optional<PoseEstimate> poseEstimate =
         validatePoseEstimate(
-            Optional.ofNullable(LimelightHelpers.getBotPoseEstimate_wpiBlue_MegaTag2(name)));
+            LimelightHelpers.getBotPoseEstimate_wpiBlue_MegaTag2(name, megaTag2Estimate)
+                ? Optional.of(megaTag2Estimate)
+                : Optional.empty());
     return poseEstimate;
   }
 
@@ -145,6 +156,16 @@ public class LimeLightCamera extends GenericCamera {
     LimelightHelpers.SetIMUMode(name, mode);
   }
 
+  /**
+   * Get the fiducial results decoded from the latest Limelight JSON dump. The returned object is
+   * reused by the next update.
+   *
+   * @return the latest fiducial results
+   */
+  public LimelightResults getLatestResults() {
+    return latestResults;
+  }
+
   /** Update the camera */
   @Override
   public void updateCameraInfo() {
@@ -157,33 +178,40 @@ public class LimeLightCamera extends GenericCamera {
           name, angleResetSupplier.get().getDegrees(), 0.0, 0.0, 0.0, 0.0, 0.0);
     }
 
-    LimelightHelpers.getLatestResults(name);
+    latestResults = LimelightHelpers.getLatestFiducialResults(name);
     List<PoseObservation> observations = new ArrayList<>();
     if (hasValidTarget()) {
       Optional<PoseEstimate> poseEstimate =
           megatagChooser.getAsBoolean() ? getRobotPoseEstimateM1() : getRobotPoseEstimateM2();
-      if (poseEstimate.isPresent()) {
-        Pose2d currPose = poseEstimate.get().pose;
-        if (null != currPose) {
-          SmartDashboard.putNumberArray(
-              "Limelight POSE",
-              new double[] {currPose.getX(), currPose.getY(), currPose.getRotation().getDegrees()});
+      if (poseEstimate.isEmpty()) {
+        // No new frame since the last update, so don't report the previous one again
+        if (input.poseObservations.length != 0) {
+          input.poseObservations = new PoseObservation[0];
         }
+        return;
       }
+      PoseEstimate estimate = poseEstimate.get();
+      Pose2d currPose = estimate.pose;
       targetPose = Optional.of(LimelightHelpers.getTargetPose3d_RobotSpace(name));
       input.latestTargetPose = targetPose.orElse(new Pose3d());
       input.hasTarget = targetPose.isPresent();
 
-      observations.add(
-          new PoseObservation(
-              poseEstimate.map(it -> it.timestampSeconds).orElse(0.0),
-              // 3D pose estimate
-              poseEstimate.map(it -> new Pose3d(it.pose)).orElse(null),
-              determineConfidence(poseEstimate.get()),
-              poseEstimate.map(it -> it.tagCount).orElse(0),
-              poseEstimate.map(it -> it.avgTagDist).orElse(0.0),
-              PoseObservationType.PHOTONVISION,
-              ProviderType.FIELD_BASED));
+      // validatePoseEstimate clears the pose of a rejected frame, which is not an observation
+      if (null != currPose) {
+        SmartDashboard.putNumberArray(
+            "Limelight POSE",
+            new double[] {currPose.getX(), currPose.getY(), currPose.getRotation().getDegrees()});
+        observations.add(
+            new PoseObservation(
+                estimate.timestampSeconds,
+                // 3D pose estimate
+                new Pose3d(currPose),
+                determineConfidence(estimate),
+                estimate.tagCount,
+                estimate.avgTagDist,
+                PoseObservationType.PHOTONVISION,
+                ProviderType.FIELD_BASED));
+      }
 
       // Save pose observations to inputs object
       if (observations.size() != input.poseObservations.length) {
@@ -195,7 +223,7 @@ public class LimeLightCamera extends GenericCamera {
 
       // Save tag IDs to inputs objects
       input.tagIds =
-          Arrays.stream(LimelightHelpers.getRawFiducials(name))
+          Arrays.stream(estimate.rawFiducials)
               .mapToInt(fiducial -> fiducial.id)
               .distinct()
               .toArray();
@@ -236,21 +264,22 @@ public class LimeLightCamera extends GenericCamera {
   }
 
   public double determineConfidence(PoseEstimate estimate) {
-    Stream<RawFiducial> fiducialStream =
-        Arrays.stream(LimelightHelpers.getRawFiducials(name))
-            .sorted(
-                (raw1, raw2) ->
-                    raw1.ambiguity == raw2.ambiguity
-                        ? 0
-                        : (raw1.ambiguity > raw2.ambiguity ? 1 : -1));
-    double min_ambiguity =
-        fiducialStream.findFirst().map(fiducial -> fiducial.ambiguity).orElse(100.0);
+    double min_ambiguity = 100.0;
+    for (RawFiducial fiducial : estimate.rawFiducials) {
+      min_ambiguity = Math.min(min_ambiguity, fiducial.ambiguity);
+    }
     double confidence =
         estimate.avgTagDist > 2 ? 1.0 : min_ambiguity * Math.max(estimate.avgTagDist / 2, 0.5);
     SmartDashboard.putNumber("Limelight Confidence", confidence);
     return confidence;
   }
 
+  @Override
+  public Topic[] getTriggerTopics() {
+    // The heartbeat increments once per processed frame
+    return new Topic[] {LimelightHelpers.getLimelightNTTable(name).getTopic("hb")};
+  }
+
   @Override
   public ProviderType getType() {
     return ProviderType.FIELD_BASED;
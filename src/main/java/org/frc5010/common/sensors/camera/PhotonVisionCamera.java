@@ -6,6 +6,8 @@ package org.frc5010.common.sensors.camera;
 
 import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.Topic;
 import java.util.List;
 import java.util.Optional;
 import org.photonvision.PhotonCamera;
@@ -57,6 +59,16 @@ public class PhotonVisionCamera extends GenericCamera {
     return target.map(t -> t.getArea()).orElse(Double.MAX_VALUE);
   }
 
+  @Override
+  public Topic[] getTriggerTopics() {
+    return new Topic[] {
+      NetworkTableInstance.getDefault()
+          .getTable("photonvision")
+          .getSubTable(name)
+          .getTopic("rawBytes")
+    };
+  }
+
   @Override
   public ProviderType getType() {
     return ProviderType.FIELD_BASED;
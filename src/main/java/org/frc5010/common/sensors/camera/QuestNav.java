@@ -27,12 +27,20 @@ import edu.wpi.first.networktables.IntegerPublisher;
 import edu.wpi.first.networktables.IntegerSubscriber;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.TimestampedFloatArray;
+import edu.wpi.first.networktables.TimestampedInteger;
+import edu.wpi.first.networktables.Topic;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
 import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -40,12 +48,15 @@ import org.frc5010.common.drive.GenericDrivetrain;
 import org.frc5010.common.drive.pose.DrivePoseEstimator;
 import org.frc5010.common.drive.pose.DrivePoseEstimator.State;
 import org.frc5010.common.drive.pose.PoseProvider;
+import org.frc5010.common.drive.pose.VisionIOInputsAutoLogged;
 import org.frc5010.common.drive.swerve.GenericSwerveDrivetrain;
 
 /** Add your docs here. */
 public class QuestNav implements PoseProvider {
+  private final VisionIOInputsAutoLogged input = new VisionIOInputsAutoLogged();
+  private final Alert disconnectedAlert = new Alert("QuestNav", AlertType.kWarning);
   private boolean initializedPosition = false;
-  public static boolean isActive = false;
+  private volatile boolean isActive = false;
   private String networkTableRoot = "questnav";
   private NetworkTableInstance networkTableInstance = NetworkTableInstance.getDefault();
   private Supplier<ChassisSpeeds> robotVelocity = null;
@@ -81,7 +92,88 @@ public class QuestNav implements PoseProvider {
   /** Last processed heartbeat request ID */
   private double lastProcessedHeartbeatId = 0;
 
-  private long previousFrameCount;
+  /** Number of samples of each topic queued between updates */
+  private static final int FRAME_QUEUE_SIZE = 20;
+  /** Maximum difference between the server times of the topics of one frame, in microseconds */
+  private static final long FRAME_MATCH_TOLERANCE_MICROS = 5000;
+
+  /** The position and angles published by the headset for one frame */
+  private record Frame(double timestamp, float[] position, float[] eulerAngles) {}
+
+  /** The complete frames received since the last update */
+  private final List<Frame> frames = new ArrayList<>();
+  /** Samples of each topic read but not yet matched into a frame */
+  private final List<TimestampedInteger> pendingFrameSamples = new ArrayList<>();
+  private final List<TimestampedFloatArray> pendingPositions = new ArrayList<>();
+  private final List<TimestampedFloatArray> pendingAngles = new ArrayList<>();
+  /** The latest complete frame */
+  private Frame latestFrame = new Frame(0.0, new float[3], new float[3]);
+
+  /**
+   * Maps a raw headset position to a field position. The robot to quest, initial pose and soft
+   * reset transforms are composed into a rotation {@code m} and an offset {@code b}, plus the
+   * rotation {@code a} of the robot to quest offset, which turns with the headset yaw.
+   */
+  private static final class PositionTransform {
+    final double[] m = new double[9];
+    final double[] a = new double[9];
+    final double[] b = new double[3];
+
+    PositionTransform(
+        Rotation3d positionRotation, Rotation3d offsetRotation, Translation3d offset) {
+      copy(positionRotation, m);
+      copy(offsetRotation, a);
+      b[0] = offset.getX();
+      b[1] = offset.getY();
+      b[2] = offset.getZ();
+    }
+
+    private static void copy(Rotation3d rotation, double[] matrix) {
+      Matrix<N3, N3> rotationMatrix = rotation.toMatrix();
+      for (int row = 0; row < 3; row++) {
+        for (int col = 0; col < 3; col++) {
+          matrix[row * 3 + col] = rotationMatrix.get(row, col);
+        }
+      }
+    }
+
+    /**
+     * Apply the transform
+     *
+     * @param raw the raw position
+     * @param yaw the raw headset yaw in radians
+     * @param questOffset the robot to quest translation
+     * @return the field position
+     */
+    Translation3d apply(Translation3d raw, double yaw, Translation3d questOffset) {
+      double cos = Math.cos(yaw);
+      double sin = Math.sin(yaw);
+      double wx = cos * questOffset.getX() - sin * questOffset.getY();
+      double wy = sin * questOffset.getX() + cos * questOffset.getY();
+      double wz = questOffset.getZ();
+      double rx = raw.getX();
+      double ry = raw.getY();
+      double rz = raw.getZ();
+      return new Translation3d(
+          m[0] * rx + m[1] * ry + m[2] * rz + b[0] - (a[0] * wx + a[1] * wy + a[2] * wz),
+          m[3] * rx + m[4] * ry + m[5] * rz + b[1] - (a[3] * wx + a[4] * wy + a[5] * wz),
+          m[6] * rx + m[7] * ry + m[8] * rz + b[2] - (a[6] * wx + a[7] * wy + a[8] * wz));
+    }
+  }
+
+  /** The transform up to the hard reset, null when it must be composed again */
+  private PositionTransform processedTransform = null;
+  /** The transform including the soft reset, null when it must be composed again */
+  private PositionTransform fieldTransform = null;
+  /** The rotation applied to the raw rotation up to the hard reset */
+  private Rotation3d processedRotation;
+  /** The rotation applied to the raw rotation including the soft reset */
+  private Rotation3d fieldRotation;
+  /** The pose of the latest frame, and the frame it was computed from */
+  private Pose3d latestPose = null;
+  private Frame latestPoseFrame = null;
+  /** The standard deviation of the observations, updated with the observations */
+  private double observationStdDev = getConfidence();
 
   private Translation2d _calculatedOffsetToRobotCenter = new Translation2d();
   private int _calculatedOffsetToRobotCenterCount = 0;
@@ -123,13 +215,18 @@ public class QuestNav implements PoseProvider {
     networkTable = networkTableInstance.getTable(root);
     miso = networkTable.getIntegerTopic("miso").getEntry(0);
     mosi = networkTable.getIntegerTopic("mosi").publish();
-    frameCount = networkTable.getIntegerTopic("frameCount").subscribe(0);
+    // Every value published is queued, so each headset frame can be read on its own
+    PubSubOption[] queued = {
+      PubSubOption.keepDuplicates(true), PubSubOption.pollStorage(FRAME_QUEUE_SIZE)
+    };
+    frameCount = networkTable.getIntegerTopic("frameCount").subscribe(0, queued);
     timestamp = networkTable.getDoubleTopic("timestamp").subscribe(0.0);
-    position = networkTable.getFloatArrayTopic("position").subscribe(new float[3]);
+    position = networkTable.getFloatArrayTopic("position").subscribe(new float[3], queued);
     quaternion = networkTable.getFloatArrayTopic("quaternion").subscribe(new float[4]);
-    eulerAngles = networkTable.getFloatArrayTopic("eulerAngles").subscribe(new float[3]);
+    eulerAngles = networkTable.getFloatArrayTopic("eulerAngles").subscribe(new float[3], queued);
     battery = networkTable.getDoubleTopic("battery").subscribe(0.0);
     isTracking = networkTable.getBooleanTopic("device/isTracking").subscribe(false);
+    latestFrame = new Frame(0.0, position.get(), eulerAngles.get());
 
     heartbeatRequestSub = networkTable.getDoubleTopic("heartbeat/quest_to_robot").subscribe(0.0);
     heartbeatResponsePub = networkTable.getDoubleTopic("heartbeat/robot_to_quest").publish();
@@ -137,61 +234,199 @@ public class QuestNav implements PoseProvider {
     disconnectedAlert.setText("QuestNav: Not connected");
   }
 
+  @Override
+  public VisionIOInputsAutoLogged getInputs() {
+    return input;
+  }
+
   public Translation3d getRawPosition() {
-    return new Translation3d(position.get()[2], -position.get()[0] * xScale, position.get()[1]);
+    return getRawPosition(latestFrame.position());
   }
 
-  private Translation3d rotateAxes(Translation3d raw, Rotation3d rotation) {
-    return raw.rotateBy(rotation);
+  private Translation3d getRawPosition(float[] framePosition) {
+    return new Translation3d(framePosition[2], -framePosition[0] * xScale, framePosition[1]);
   }
 
   public void withRobotSpeedSupplier(Supplier<ChassisSpeeds> robotSpeed) {
     robotVelocity = robotSpeed;
   }
 
-  private Translation3d correctWorldAxis(Translation3d rawPosition) {
-    return rotateAxes(rawPosition, robotToQuest.getRotation());
+  public Rotation3d getRawRotation() {
+    return getRawRotation(latestFrame.eulerAngles());
   }
 
-  public Rotation3d getRawRotation() {
-    float[] euler = eulerAngles.get();
+  private Rotation3d getRawRotation(float[] euler) {
     return new Rotation3d(Degrees.of(euler[2]), Degrees.of(euler[0]), Degrees.of(-euler[1]));
   }
 
+  /**
+   * Reads the queued samples of the frame topics and pairs them into complete frames. Samples of
+   * the same frame are published together, so they are matched by their server time; a frame
+   * missing its position or angles is not mixed with another frame. The topics are read one after
+   * the other, so samples that have not been matched yet are kept for the next update, where the
+   * rest of their frame may have arrived.
+   */
+  private void readFrames() {
+    frames.clear();
+    Collections.addAll(pendingFrameSamples, frameCount.readQueue());
+    addValidSamples(pendingPositions, position.readQueue());
+    addValidSamples(pendingAngles, eulerAngles.readQueue());
+    long lastMatched = Long.MIN_VALUE;
+    Iterator<TimestampedInteger> frameSamples = pendingFrameSamples.iterator();
+    while (frameSamples.hasNext()) {
+      long serverTime = frameSamples.next().serverTime;
+      TimestampedFloatArray framePosition = closestSample(pendingPositions, serverTime);
+      TimestampedFloatArray frameAngles = closestSample(pendingAngles, serverTime);
+      if (null != framePosition && null != frameAngles) {
+        // Server times are in microseconds
+        frames.add(new Frame(serverTime / 1e6, framePosition.value, frameAngles.value));
+        pendingPositions.remove(framePosition);
+        pendingAngles.remove(frameAngles);
+        frameSamples.remove();
+        lastMatched = serverTime;
+      }
+    }
+    if (Long.MIN_VALUE != lastMatched) {
+      // Samples older than the last complete frame can no longer complete a frame
+      long oldest = lastMatched - FRAME_MATCH_TOLERANCE_MICROS;
+      long matched = lastMatched;
+      pendingFrameSamples.removeIf(sample -> sample.serverTime < matched);
+      pendingPositions.removeIf(sample -> sample.serverTime < oldest);
+      pendingAngles.removeIf(sample -> sample.serverTime < oldest);
+    }
+    trimPending(pendingFrameSamples);
+    trimPending(pendingPositions);
+    trimPending(pendingAngles);
+    if (!frames.isEmpty()) {
+      latestFrame = frames.get(frames.size() - 1);
+    }
+  }
+
+  private static void addValidSamples(
+      List<TimestampedFloatArray> pending, TimestampedFloatArray[] samples) {
+    for (TimestampedFloatArray sample : samples) {
+      if (sample.value.length >= 3) {
+        pending.add(sample);
+      }
+    }
+  }
+
+  /** Drops the oldest samples beyond the queue size, e.g. when one topic stops publishing. */
+  private static void trimPending(List<?> pending) {
+    if (pending.size() > FRAME_QUEUE_SIZE) {
+      pending.subList(0, pending.size() - FRAME_QUEUE_SIZE).clear();
+    }
+  }
+
+  private static TimestampedFloatArray closestSample(
+      List<TimestampedFloatArray> samples, long serverTime) {
+    TimestampedFloatArray closest = null;
+    long closestDifference = FRAME_MATCH_TOLERANCE_MICROS;
+    for (TimestampedFloatArray sample : samples) {
+      long difference = Math.abs(sample.serverTime - serverTime);
+      if (difference <= closestDifference) {
+        closest = sample;
+        closestDifference = difference;
+      }
+    }
+    return closest;
+  }
+
   public Optional<Pose3d> getRobotPose() {
     if (RobotBase.isReal()) {
-      Pose3d pose = new Pose3d(getPosition(), getRotation());
-      return Optional.of(pose);
+      return Optional.of(getLatestPose());
     } else {
       return Optional.empty();
     }
   }
 
+  /** Compose the transforms, which only change when the pose is reset. */
+  private void composeTransforms() {
+    if (null != fieldTransform) {
+      return;
+    }
+    Rotation3d initRotation = initPose.getRotation();
+    Rotation3d softRotation = softResetTransform.getRotation();
+    Translation3d questOffset = robotToQuest.getTranslation();
+
+    Translation3d processedOffset =
+        questOffset.rotateBy(initRotation).plus(initPose.getTranslation());
+    processedTransform =
+        new PositionTransform(
+            robotToQuest.getRotation().plus(initRotation), initRotation, processedOffset);
+    processedRotation = initRotation;
+
+    Translation3d fieldOffset =
+        processedOffset
+            .minus(softResetPose.getTranslation())
+            .rotateBy(softRotation)
+            .plus(softResetPose.getTranslation())
+            .plus(softResetTransform.getTranslation());
+    fieldRotation = initRotation.plus(softRotation);
+    fieldTransform =
+        new PositionTransform(
+            robotToQuest.getRotation().plus(fieldRotation), fieldRotation, fieldOffset);
+  }
+
+  /** Drop the composed transforms after a reset. */
+  private void invalidateTransforms() {
+    processedTransform = null;
+    fieldTransform = null;
+    latestPoseFrame = null;
+  }
+
+  /**
+   * Get the field pose of a frame
+   *
+   * @param frame the frame
+   * @return the pose
+   */
+  private Pose3d getPose(Frame frame) {
+    composeTransforms();
+    Rotation3d rawRotation = getRawRotation(frame.eulerAngles());
+    return new Pose3d(
+        fieldTransform.apply(
+            getRawPosition(frame.position()), rawRotation.getZ(), robotToQuest.getTranslation()),
+        rawRotation.plus(fieldRotation));
+  }
+
+  private Pose3d getLatestPose() {
+    if (latestPoseFrame != latestFrame) {
+      latestPose = getPose(latestFrame);
+      latestPoseFrame = latestFrame;
+    }
+    return latestPose;
+  }
+
   private void updateObservations() {
     List<PoseObservation> observations = new ArrayList<>();
-    double calib = getConfidence();
+    observationStdDev = getConfidence();
     if (null != robotVelocity) {
-      Translation2d questVelVector =
-          new Translation2d(getVelocity().vxMetersPerSecond, getVelocity().vyMetersPerSecond);
-      Translation2d robotVelVector =
-          new Translation2d(
-              robotVelocity.get().vxMetersPerSecond, robotVelocity.get().vyMetersPerSecond);
-      if (Math.abs(questVelVector.getNorm() - robotVelVector.getNorm()) > 1.0) {
-        calib = 10;
+      ChassisSpeeds questVelocity = getVelocity();
+      ChassisSpeeds robotSpeeds = robotVelocity.get();
+      if (Math.abs(
+              Math.hypot(questVelocity.vxMetersPerSecond, questVelocity.vyMetersPerSecond)
+                  - Math.hypot(robotSpeeds.vxMetersPerSecond, robotSpeeds.vyMetersPerSecond))
+          > 1.0) {
+        observationStdDev = 10;
       }
     }
     input.connected = isActive();
     if (isActive) {
-      observations.add(
-          new PoseObservation(
-              getCaptureTime(),
-              new Pose3d(getPosition(), getRotation()),
-              0,
-              0,
-              0,
-              PoseObservationType.ENVIRONMENT_BASED,
-              ProviderType.ENVIRONMENT_BASED));
+      // One observation per headset frame, at the time the frame was published
+      for (Frame frame : frames) {
+        observations.add(
+            new PoseObservation(
+                frame.timestamp(),
+                frame == latestFrame ? getLatestPose() : getPose(frame),
+                0,
+                0,
+                0,
+                PoseObservationType.ENVIRONMENT_BASED,
+                ProviderType.ENVIRONMENT_BASED));
+      }
     }
+    input.captureTime = getCaptureTime();
     // Save pose observations to inputs object
     input.poseObservations = new PoseObservation[observations.size()];
     for (int i = 0; i < observations.size(); i++) {
@@ -201,52 +436,26 @@ public class QuestNav implements PoseProvider {
 
   @Override
   public Matrix<N3, N1> getStdDeviations(PoseObservation observation) {
-    double calib = getConfidence();
-    if (null != robotVelocity) {
-      Translation2d questVelVector =
-          new Translation2d(getVelocity().vxMetersPerSecond, getVelocity().vyMetersPerSecond);
-      Translation2d robotVelVector =
-          new Translation2d(
-              robotVelocity.get().vxMetersPerSecond, robotVelocity.get().vyMetersPerSecond);
-      if (Math.abs(questVelVector.getNorm() - robotVelVector.getNorm()) > 1.0) {
-        calib = 10;
-      }
-    }
-    return VecBuilder.fill(calib, calib, calib * 0.2);
+    return VecBuilder.fill(observationStdDev, observationStdDev, observationStdDev * 0.2);
   }
 
   public Translation3d getProcessedPosition() {
-    Translation3d correctedWorldAxis = correctWorldAxis(getRawPosition());
-    Translation3d offsetCorrection =
-        correctedWorldAxis
-            .plus(robotToQuest.getTranslation())
-            .plus(
-                robotToQuest
-                    .getTranslation()
-                    .times(-1)
-                    .rotateBy(new Rotation3d(0, 0, getRawRotation().getZ())));
-    Translation3d rotatedAxis = rotateAxes(offsetCorrection, initPose.getRotation());
-    Translation3d hardResetTransformation = rotatedAxis.plus(initPose.getTranslation());
-    return hardResetTransformation;
+    composeTransforms();
+    return processedTransform.apply(
+        getRawPosition(), getRawRotation().getZ(), robotToQuest.getTranslation());
   }
 
   public Translation3d getPosition() {
-    Translation3d hardResetTransform = getProcessedPosition();
-    Translation3d softResetTransformation =
-        rotateAxes(
-                hardResetTransform.minus(softResetPose.getTranslation()),
-                softResetTransform.getRotation())
-            .plus(softResetPose.getTranslation())
-            .plus(softResetTransform.getTranslation());
-    return softResetTransformation;
+    return getLatestPose().getTranslation();
   }
 
   public Rotation3d getProcessedRotation() {
-    return getRawRotation().plus(initPose.getRotation());
+    composeTransforms();
+    return getRawRotation().plus(processedRotation);
   }
 
   public Rotation3d getRotation() {
-    return getProcessedRotation().plus(softResetTransform.getRotation());
+    return getLatestPose().getRotation();
   }
 
   public double getConfidence() {
@@ -257,10 +466,13 @@ public class QuestNav implements PoseProvider {
     }
   }
 
+  /**
+   * Get the time the latest frame was published
+   *
+   * @return the server time of the latest frame in seconds
+   */
   public double getCaptureTime() {
-    double t = timestamp.getAtomic().serverTime;
-    updateFrameCount();
-    return t;
+    return latestFrame.timestamp();
   }
 
   public void processHeartbeat() {
@@ -281,11 +493,11 @@ public class QuestNav implements PoseProvider {
     double t = timestamp.get();
     boolean simulation = RobotBase.isSimulation();
     // boolean disabled = DriverStation.isDisabled();
-    double frame = frameCount.get();
+    boolean newFrame = !frames.isEmpty();
 
-    isActive = t != 0 && !simulation && previousFrameCount != frame && isTracking.get();
+    isActive = t != 0 && !simulation && newFrame && isTracking.get();
 
-    if (previousFrameCount == frame) {
+    if (!newFrame) {
       disconnectedAlert.setText("QuestNav Disconnected: Frame mismach");
     } else if (!isTracking.get()) {
       disconnectedAlert.setText("QuestNav Disconnected: Not tracking");
@@ -298,10 +510,6 @@ public class QuestNav implements PoseProvider {
     return isActive && initializedPosition;
   }
 
-  public void updateFrameCount() {
-    previousFrameCount = frameCount.get();
-  }
-
   public boolean processQuestCommand(QuestCommand command) {
     if (miso.get() == 99) {
       return false;
@@ -315,15 +523,19 @@ public class QuestNav implements PoseProvider {
   }
 
   public void softReset(Pose3d pose) {
+    Translation3d processedPosition = getProcessedPosition();
+    Rotation3d processedRotation = getProcessedRotation();
     softResetTransform =
         new Transform3d(
-            pose.getTranslation().minus(getProcessedPosition()),
-            pose.getRotation().minus(getProcessedRotation()));
-    softResetPose = new Pose3d(getProcessedPosition(), getProcessedRotation());
+            pose.getTranslation().minus(processedPosition),
+            pose.getRotation().minus(processedRotation));
+    softResetPose = new Pose3d(processedPosition, processedRotation);
+    invalidateTransforms();
   }
 
   public void hardReset(Pose3d pose) {
     initPose = pose;
+    invalidateTransforms();
     resetQuestPose();
     hasHardReset = initialReset;
     initialReset = true;
@@ -348,6 +560,11 @@ public class QuestNav implements PoseProvider {
     return ProviderType.ENVIRONMENT_BASED;
   }
 
+  @Override
+  public Topic[] getTriggerTopics() {
+    return new Topic[] {networkTable.getTopic("frameCount")};
+  }
+
   public void resetPose() {
     initializedPosition = true;
     resetQuestPose();
@@ -364,8 +581,9 @@ public class QuestNav implements PoseProvider {
   }
 
   private void updateVelocity() {
+    Pose3d pose = getLatestPose();
     if (previousPose == null) {
-      previousPose = getRobotPose().get();
+      previousPose = pose;
       previousTime = timestamp.get();
       return;
     }
@@ -376,11 +594,11 @@ public class QuestNav implements PoseProvider {
     }
     velocity =
         new ChassisSpeeds(
-            (getPosition().getX() - previousPose.getTranslation().getX()) / deltaTime,
-            (getPosition().getY() - previousPose.getTranslation().getY()) / deltaTime,
-            (getRotation().getZ() - previousPose.getRotation().getZ()) / deltaTime);
+            (pose.getX() - previousPose.getX()) / deltaTime,
+            (pose.getY() - previousPose.getY()) / deltaTime,
+            (pose.getRotation().getZ() - previousPose.getRotation().getZ()) / deltaTime);
     previousTime = currentTime;
-    previousPose = getRobotPose().get();
+    previousPose = pose;
   }
 
   public ChassisSpeeds getVelocity() {
@@ -395,6 +613,7 @@ public class QuestNav implements PoseProvider {
     if (RobotBase.isReal()) {
       processHeartbeat();
       cleanUpQuestCommand();
+      readFrames();
       updateVelocity();
       updateObservations();
       SmartDashboard.putBoolean(networkTableRoot + "/Reset Pose", false);
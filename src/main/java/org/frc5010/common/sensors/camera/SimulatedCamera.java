@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
+import org.littletonrobotics.junction.Logger;
 import org.photonvision.PhotonPoseEstimator.PoseStrategy;
 import org.photonvision.simulation.PhotonCameraSim;
 import org.photonvision.simulation.SimCameraProperties;
@@ -23,6 +24,8 @@ public class SimulatedCamera extends PhotonVisionPoseCamera {
   public static VisionSystemSim visionSim = new VisionSystemSim("main");
   /** Whether the tags have been loaded */
   static boolean tagsLoaded = false;
+  /** The loop timestamp of the last vision simulation update, in microseconds */
+  private static long lastVisionSimUpdate = -1;
 
   /** The simulated camera properties */
   protected SimCameraProperties cameraProp = new SimCameraProperties();
@@ -75,13 +78,38 @@ public class SimulatedCamera extends PhotonVisionPoseCamera {
     cameraSim = new PhotonCameraSim(camera, cameraProp);
     visionSim.addCamera(cameraSim, cameraToRobot);
 
-    // Enable the raw and processed streams. These are enabled by default.
-    cameraSim.enableRawStream(true);
-    cameraSim.enableProcessedStream(true);
+    // Rendering the camera streams is expensive, enable it per camera with setStreamRendering
+    setStreamRendering(false, false);
+  }
+
+  /**
+   * Set whether the simulated camera renders its raw and processed streams
+   *
+   * @param streams whether to render the streams
+   * @param wireframe whether to draw a wireframe of the field on the streams, which is extremely
+   *     resource-intensive
+   */
+  public void setStreamRendering(boolean streams, boolean wireframe) {
+    cameraSim.enableRawStream(streams);
+    cameraSim.enableProcessedStream(streams);
+    cameraSim.enableDrawWireframe(streams && wireframe);
+  }
 
-    // Enable drawing a wireframe visualization of the field to the camera streams.
-    // This is extremely resource-intensive and is disabled by default.
-    cameraSim.enableDrawWireframe(true);
+  /**
+   * Update the vision simulation with the robot pose, at most once per robot loop however many
+   * simulated cameras share it
+   *
+   * @param robotPose the robot pose
+   */
+  public static synchronized void updateVisionSim(Pose2d robotPose) {
+    // The logger timestamp is fixed for the whole loop
+    long loopTimestamp = Logger.getTimestamp();
+    if (loopTimestamp == lastVisionSimUpdate) {
+      return;
+    }
+    lastVisionSimUpdate = loopTimestamp;
+    visionSim.update(robotPose);
+    visionSim.resetRobotPose(robotPose);
   }
 
   /**
@@ -148,9 +176,7 @@ public class SimulatedCamera extends PhotonVisionPoseCamera {
         target = Optional.ofNullable(camResult.getBestTarget());
       }
     }
-    Pose2d p = poseSupplier.get();
-    visionSim.update(p);
-    visionSim.resetRobotPose(p);
+    updateVisionSim(poseSupplier.get());
   }
 
   @Override
@@ -0,0 +1,61 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.frc5010.common.sensors.camera;
+
+import edu.wpi.first.math.geometry.Pose3d;
+import java.util.ArrayList;
+import java.util.List;
+import org.photonvision.estimation.TargetModel;
+import org.photonvision.simulation.VisionTargetSim;
+
+/**
+ * Keeps one type of vision target in {@link SimulatedCamera#visionSim} in sync with a list of
+ * poses, such as the game pieces of a simulated arena. Targets are matched to the poses by their
+ * position in the list; a target is only moved when its pose changed, and targets are only added or
+ * removed when the number of poses changes.
+ */
+public class VisionTargetSync {
+  private final String type;
+  private final TargetModel model;
+  private final List<VisionTargetSim> targets = new ArrayList<>();
+
+  /**
+   * Create a sync for a type of target
+   *
+   * @param type the type of the targets in the vision simulation
+   * @param model the model of the targets
+   */
+  public VisionTargetSync(String type, TargetModel model) {
+    this.type = type;
+    this.model = model;
+  }
+
+  /**
+   * Update the targets to match the poses
+   *
+   * @param poses the current poses of the targets
+   */
+  public void sync(List<Pose3d> poses) {
+    // The vision simulation may be ticked by cameras on other threads
+    synchronized (SimulatedCamera.class) {
+      int matched = Math.min(poses.size(), targets.size());
+      for (int i = 0; i < matched; i++) {
+        VisionTargetSim target = targets.get(i);
+        Pose3d pose = poses.get(i);
+        if (!pose.equals(target.getPose())) {
+          target.setPose(pose);
+        }
+      }
+      for (int i = matched; i < poses.size(); i++) {
+        VisionTargetSim target = new VisionTargetSim(poses.get(i), model);
+        targets.add(target);
+        SimulatedCamera.visionSim.addVisionTargets(type, target);
+      }
+      while (targets.size() > poses.size()) {
+        SimulatedCamera.visionSim.removeVisionTargets(targets.remove(targets.size() - 1));
+      }
+    }
+  }
+}
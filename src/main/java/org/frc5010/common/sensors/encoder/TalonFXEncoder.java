@@ -4,9 +4,6 @@
 
 package org.frc5010.common.sensors.encoder;
 
-import static edu.wpi.first.units.Units.RPM;
-import static edu.wpi.first.units.Units.Rotations;
-
 import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.sim.ChassisReference;
 import com.ctre.phoenix6.sim.TalonFXSimState;
@@ -18,6 +15,8 @@ import org.frc5010.common.motors.hardware.GenericTalonFXMotor;
 public class TalonFXEncoder implements GenericEncoder {
   /** TalonFX motor */
   TalonFX motor;
+  /** Motor wrapper serving cached status signals */
+  GenericTalonFXMotor genericMotor;
   /** TalonFX simulation */
   protected TalonFXSimState talonFXSim;
 
@@ -27,6 +26,7 @@ public class TalonFXEncoder implements GenericEncoder {
       0.002; // Assume 2mOhm resistance for voltage drop calculation
 
   public TalonFXEncoder(GenericTalonFXMotor motor) {
+    this.genericMotor = motor;
     this.motor = (TalonFX) motor.getMotor();
     talonFXSim = this.motor.getSimState();
     talonFXSim.Orientation = ChassisReference.CounterClockwise_Positive;
@@ -50,12 +50,12 @@ public class TalonFXEncoder implements GenericEncoder {
 
   @Override
   public double getPosition() {
-    return rotationsToDistance(motor.getPosition().getValue().in(Rotations));
+    return rotationsToDistance(genericMotor.getPositionRotations());
   }
 
   @Override
   public double getVelocity() {
-    return rotationsPerMinToVelocity(motor.getVelocity().getValue().in(RPM));
+    return rotationsPerMinToVelocity(genericMotor.getVelocityRotationsPerSecond() * 60.0);
   }
 
   public double getVoltage() {
@@ -70,6 +70,7 @@ public class TalonFXEncoder implements GenericEncoder {
   @Override
   public void setPosition(double position) {
     motor.setPosition(distanceToRotations(position));
+    genericMotor.getSignalRegistry().invalidate();
     talonFXSim.setRawRotorPosition(distanceToRotations(position));
   }
 
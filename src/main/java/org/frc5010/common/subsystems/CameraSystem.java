@@ -10,10 +10,9 @@ import java.util.List;
 import org.frc5010.common.arch.GenericSubsystem;
 import org.frc5010.common.constants.Constants;
 import org.frc5010.common.sensors.camera.GenericCamera;
-import org.frc5010.common.sensors.camera.SimulatedCamera;
+import org.frc5010.common.sensors.camera.VisionTargetSync;
 import org.ironmaple.simulation.SimulatedArena;
 import org.photonvision.estimation.TargetModel;
-import org.photonvision.simulation.VisionTargetSim;
 
 /**
  * This class is an abstract class that needs to be implemented by any subclass of CameraSystem. It
@@ -26,6 +25,9 @@ public abstract class CameraSystem extends GenericSubsystem {
   protected String HAS_VALID_TARGET = "hasValidTarget";
   protected TargetModel targetModel = new TargetModel(0.3556);
 
+  /** The game piece targets, shared by every camera system since they share the simulation */
+  private static VisionTargetSync gamePieceASync = null, gamePieceBSync = null;
+
   /**
    * Creates a new CameraSystem.
    *
@@ -49,20 +51,16 @@ public abstract class CameraSystem extends GenericSubsystem {
 
   @Override
   public void simulationPeriodic() {
+    if (null == gamePieceASync) {
+      gamePieceASync = new VisionTargetSync("GPA", targetModel);
+      gamePieceBSync = new VisionTargetSync("GPB", targetModel);
+    }
     List<Pose3d> gpas =
         SimulatedArena.getInstance().getGamePiecesByType(Constants.Simulation.gamePieceA);
-    SimulatedCamera.visionSim.removeVisionTargets("GPA");
-    for (Pose3d gpa : gpas) {
-      VisionTargetSim simTarget = new VisionTargetSim(gpa, targetModel);
-      SimulatedCamera.visionSim.addVisionTargets("GPA", simTarget);
-    }
+    gamePieceASync.sync(gpas);
     List<Pose3d> gpbs =
         SimulatedArena.getInstance().getGamePiecesByType(Constants.Simulation.gamePieceB);
-    SimulatedCamera.visionSim.removeVisionTargets("GPB");
-    for (Pose3d gpb : gpbs) {
-      VisionTargetSim simTarget = new VisionTargetSim(gpb, targetModel);
-      SimulatedCamera.visionSim.addVisionTargets("GPB", simTarget);
-    }
+    gamePieceBSync.sync(gpbs);
   }
 
   /**
@@ -11,10 +11,16 @@ import java.util.function.Function;
 
 /** Defines a segment of an LED strip */
 public class LEDStripSegment {
+  /** Milliseconds per step of the rainbow and orbit animations, one robot loop */
+  private static final long ANIMATION_STEP_MILLIS = 20;
+
   private int start, end;
   private Color8Bit color;
+  private int colorRgb;
   private boolean active = false;
   private boolean needsUpdate = false;
+  private LedPattern pattern = null;
+  private boolean animated = false;
   public Function<Integer, Color8Bit> setLED = null;
   public Consumer<AddressableLEDBuffer> setLEDStrip = null;
 
@@ -26,9 +32,7 @@ public class LEDStripSegment {
    * @param color - the color of the LED strip segment
    */
   public LEDStripSegment(int start, int end, Color color) {
-    this.start = start;
-    this.end = end;
-    this.color = color.getColor8Bit();
+    this(start, end, color.getColor8Bit());
   }
 
   /**
@@ -42,6 +46,7 @@ public class LEDStripSegment {
     this.start = start;
     this.end = end;
     this.color = color;
+    this.colorRgb = LedPattern.rgb(color);
   }
 
   /**
@@ -63,23 +68,70 @@ public class LEDStripSegment {
   }
 
   /**
-   * Set the LED action at a particular position
+   * Set the LED action at a particular position. The function is evaluated for every LED on every
+   * loop while the segment is active, since it may depend on changing state; prefer {@link
+   * #setPattern(LedPattern, boolean)}, which does not allocate.
    *
    * @param ledFunction - the function to set the LED at a particular position
    */
   public void setLedAction(Function<Integer, Color8Bit> ledFunction) {
+    setPattern((index, time) -> LedPattern.rgb(ledFunction.apply(index)), true);
     setLED = ledFunction;
-    setLEDStrip = null;
   }
 
   /**
-   * Set the LED action using the whole LED buffer
+   * Set the LED action using the whole LED buffer. The action is run when the segment is updated.
    *
    * @param ledFunction - the function to set the LEDs taking in the whole LED buffer
    */
   public void setLedAction(Consumer<AddressableLEDBuffer> ledFunction) {
     setLEDStrip = ledFunction;
     setLED = null;
+    pattern = null;
+    animated = false;
+    needsUpdate = true;
+  }
+
+  /**
+   * Set the pattern used to color the LEDs of the segment
+   *
+   * @param pattern - the pattern
+   * @param animated - whether the pattern changes with time and must be rendered every loop, rather
+   *     than only when the segment is updated
+   */
+  public void setPattern(LedPattern pattern, boolean animated) {
+    this.pattern = pattern;
+    this.animated = animated;
+    setLED = null;
+    setLEDStrip = null;
+    needsUpdate = true;
+  }
+
+  /**
+   * Get whether the current pattern changes with time
+   *
+   * @return whether the pattern is animated
+   */
+  public boolean isAnimated() {
+    return animated;
+  }
+
+  /**
+   * Render the segment's pattern into an RGB frame holding three bytes per LED of the whole strip.
+   * Segments using a whole-buffer action are not rendered here.
+   *
+   * @param frame - the frame to write
+   * @param timeMillis - the render time in milliseconds
+   */
+  public void render(byte[] frame, long timeMillis) {
+    if (null == pattern) return;
+    for (int i = start; i <= end; i++) {
+      int rgb = pattern.colorAt(i - start, timeMillis);
+      int offset = i * 3;
+      frame[offset] = (byte) LedPattern.red(rgb);
+      frame[offset + 1] = (byte) LedPattern.green(rgb);
+      frame[offset + 2] = (byte) LedPattern.blue(rgb);
+    }
   }
 
   /**
@@ -127,6 +179,7 @@ public class LEDStripSegment {
    */
   public LEDStripSegment setColor(Color color) {
     this.color = color.getColor8Bit();
+    colorRgb = LedPattern.rgb(this.color);
     needsUpdate = true;
     return this;
   }
@@ -149,39 +202,36 @@ public class LEDStripSegment {
     return setLED;
   }
 
+  /**
+   * Get the current pattern
+   *
+   * @return the current pattern, or null if a whole-buffer action is used
+   */
+  public LedPattern getPattern() {
+    return pattern;
+  }
+
   /** Turn on the LED strip segment */
   public void on() {
-    setLedAction((Integer i) -> color);
-    needsUpdate = true;
+    setPattern((index, time) -> colorRgb, false);
   }
 
-  int m_rainbowFirstPixelHue = 180;
-
   /** Set up a rainbow action on the LED strip */
   public void rainbow() {
-    m_rainbowFirstPixelHue = 180;
-    needsUpdate = true;
-    setLedAction(
-        (led) -> {
-          for (var i = start; i <= end; i++) {
-            // Calculate the hue - hue is easier for rainbows because the color
-            // shape is a circle so only one value needs to precess
-            final var hue = (m_rainbowFirstPixelHue + (i * 180 / (end - start))) % 180;
-            // Set the value
-            led.setHSV(i, hue, 255, 128);
-          }
-          // Increase by to make the rainbow "move"
-          m_rainbowFirstPixelHue += 3;
-          // Check bounds
-          m_rainbowFirstPixelHue %= 180;
-          needsUpdate = true;
-        });
+    int length = Math.max(1, end - start);
+    setPattern(
+        (index, time) -> {
+          // Hue is easier for rainbows because the color shape is a circle so only one value needs
+          // to precess. Advance 3 hue steps per loop to make the rainbow "move"
+          int firstPixelHue = (int) ((180 + (time / ANIMATION_STEP_MILLIS) * 3) % 180);
+          return LedPattern.hsv((firstPixelHue + (index * 180 / length)) % 180, 255, 128);
+        },
+        true);
   }
 
   /** Turn off the LED strip segment */
   public void off() {
-    setLedAction((Integer i) -> Color.OFF.getColor8Bit());
-    needsUpdate = true;
+    setPattern((index, time) -> 0, false);
   }
 
   /**
@@ -191,15 +241,7 @@ public class LEDStripSegment {
    * @param offTime - the time the LED should be off
    */
   public void blink(long onTime, long offTime) {
-    needsUpdate = true;
-    setLedAction(
-        (Integer i) -> {
-          needsUpdate = true;
-          if (System.currentTimeMillis() % (onTime + offTime) <= onTime) {
-            return color;
-          }
-          return Color.OFF.getColor8Bit();
-        });
+    setPattern((index, time) -> time % (onTime + offTime) <= onTime ? colorRgb : 0, true);
   }
 
   /**
@@ -208,23 +250,23 @@ public class LEDStripSegment {
    * @param scalar - the scalar of the flame
    */
   public void flame(int scalar) {
-    needsUpdate = true;
-    setLedAction(
-        (Integer currLedPos) -> {
-          needsUpdate = true;
-          if (currLedPos < scalar) {
-            return Color.getColor8BitAlpha(color, 50 + (Math.random() * 40));
-          } else if (currLedPos < scalar * 1.3) {
-            return Color.getColor8BitAlpha(color, 30 + (Math.random() * 40));
-          } else if (currLedPos < scalar * 2) {
-            return Color.getColor8BitAlpha(color, Math.random() * 40);
+    setPattern(
+        (index, time) -> {
+          double alpha;
+          if (index < scalar) {
+            alpha = 50 + (Math.random() * 40);
+          } else if (index < scalar * 1.3) {
+            alpha = 30 + (Math.random() * 40);
+          } else if (index < scalar * 2) {
+            alpha = Math.random() * 40;
+          } else {
+            alpha = ((Math.random() * 30) - 29) * 20;
           }
-          return Color.getColor8BitAlpha(color, ((Math.random() * 30) - 29) * 20);
-        });
+          return LedPattern.scale(colorRgb, alpha / 100.0);
+        },
+        true);
   }
 
-  int ledPos = start;
-
   /**
    * Orbit effect on the LED strip segment
    *
@@ -237,37 +279,17 @@ public class LEDStripSegment {
    * @param percentLed the percentage of the LED strip segment to orbit
    */
   public void orbit(int r1, int g1, int b1, int r2, int g2, int b2, double percentLed) {
-    int red1 = r1;
-    int green1 = g1;
-    int blue1 = b1;
-    int red2 = r2;
-    int green2 = g2;
-    int blue2 = b2;
-    int length = end - start;
-    int numberOrbit = (int) ((double) length * percentLed);
-    needsUpdate = true;
-    setLedAction(
-        (AddressableLEDBuffer led) -> {
-          needsUpdate = true;
-          for (int i = start; i <= end; i++) {
-            if (i >= ledPos && (i - ledPos) < numberOrbit) {
-              led.setRGB(i % length, red2, green2, blue2);
-              if ((ledPos + numberOrbit) - length >= 0) {
-                for (int j = 0; j <= (ledPos + numberOrbit) - length; j++) {
-                  led.setRGB(j, red2, green2, blue2);
-                }
-              }
-            } else {
-              led.setRGB(i % length, red1, green1, blue1);
-            }
-          }
-
-          // pushes the positon of the orbititing leds up by 1
-          ledPos++;
-          if (ledPos > end) {
-            ledPos = start;
-          }
-        });
+    int background = LedPattern.rgb(r1, g1, b1);
+    int orbiting = LedPattern.rgb(r2, g2, b2);
+    int count = end - start + 1;
+    int numberOrbit = (int) ((double) (end - start) * percentLed);
+    setPattern(
+        (index, time) -> {
+          // The orbiting LEDs move up by one every loop and wrap around the segment
+          int ledPos = (int) ((time / ANIMATION_STEP_MILLIS) % count);
+          return Math.floorMod(index - ledPos, count) < numberOrbit ? orbiting : background;
+        },
+        true);
   }
 
   /** Chase effect on the LED strip segment */
@@ -281,40 +303,26 @@ public class LEDStripSegment {
    * @param rainbow - whether the rainbow should be used
    */
   public void chase(boolean rainbow) {
-    needsUpdate = true;
     int length = end - start;
-    setLedAction(
-        (Integer i) -> {
-          int pos = i - start;
-          needsUpdate = true;
-          long currentTime = System.currentTimeMillis();
-          long chasePos = (length * (currentTime % 1000)) / 1000;
-          long timeSecs = currentTime / 1000;
-          boolean evenOdd = timeSecs == (2 * (timeSecs / 2));
-          if (rainbow && i == end) {
-            final var hue = (m_rainbowFirstPixelHue + (i * 180 / (end - start))) % 180;
-            // Set the value
-            color = Color.fromHSV(hue, 255, 128);
-            // Increase by to make the rainbow "move"
-            m_rainbowFirstPixelHue += 3;
-            // Check bounds
-            m_rainbowFirstPixelHue %= 180;
+    setPattern(
+        (index, time) -> {
+          long chasePos = (length * (time % 1000)) / 1000;
+          if ((time / 1000) % 2 == 0) chasePos = length - chasePos;
+          int chaseColor =
+              rainbow
+                  ? LedPattern.hsv((int) ((time / ANIMATION_STEP_MILLIS) * 3 % 180), 255, 128)
+                  : colorRgb;
+          if (chasePos == index) {
+            return chaseColor;
           }
-          if (evenOdd) chasePos = length - chasePos;
-          if (chasePos == pos) {
-            return color;
+          double colorPer;
+          if (index < chasePos) {
+            colorPer = 1.0 - ((double) (chasePos - index) / chasePos);
           } else {
-            double colorPer = 0;
-            if (pos < chasePos) {
-              colorPer = 1.0 - ((double) (chasePos - pos) / (chasePos - start));
-            } else {
-              colorPer = 1.0 - ((double) (pos - chasePos) / (end - chasePos));
-            }
-            int red = (int) Math.round(color.red * colorPer);
-            int green = (int) Math.round(color.green * colorPer);
-            int blue = (int) Math.round(color.blue * colorPer);
-            return new Color8Bit(red, green, blue);
+            colorPer = 1.0 - ((double) (index - chasePos) / (length - chasePos));
           }
-        });
+          return LedPattern.scale(chaseColor, colorPer);
+        },
+        true);
   }
 }
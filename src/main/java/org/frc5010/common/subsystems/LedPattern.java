@@ -0,0 +1,129 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.frc5010.common.subsystems;
+
+import edu.wpi.first.wpilibj.util.Color8Bit;
+
+/**
+ * Computes the color of each LED in a segment as a packed 0xRRGGBB int, so that rendering a strip
+ * does not allocate. Animated patterns are functions of time rather than of how often they are
+ * called, so a pattern looks the same regardless of the loop rate.
+ */
+@FunctionalInterface
+public interface LedPattern {
+  /**
+   * Get the color of an LED
+   *
+   * @param index the index of the LED within its segment, starting at 0
+   * @param timeMillis the render time in milliseconds
+   * @return the packed 0xRRGGBB color
+   */
+  int colorAt(int index, long timeMillis);
+
+  /**
+   * Pack a color into an int
+   *
+   * @param red the red value, clamped to 0-255
+   * @param green the green value, clamped to 0-255
+   * @param blue the blue value, clamped to 0-255
+   * @return the packed 0xRRGGBB color
+   */
+  static int rgb(int red, int green, int blue) {
+    return (clamp(red) << 16) | (clamp(green) << 8) | clamp(blue);
+  }
+
+  /**
+   * Pack a color into an int
+   *
+   * @param color the color
+   * @return the packed 0xRRGGBB color
+   */
+  static int rgb(Color8Bit color) {
+    return rgb(color.red, color.green, color.blue);
+  }
+
+  /**
+   * Get the red value of a packed color
+   *
+   * @param rgb the packed color
+   * @return the red value
+   */
+  static int red(int rgb) {
+    return (rgb >> 16) & 0xFF;
+  }
+
+  /**
+   * Get the green value of a packed color
+   *
+   * @param rgb the packed color
+   * @return the green value
+   */
+  static int green(int rgb) {
+    return (rgb >> 8) & 0xFF;
+  }
+
+  /**
+   * Get the blue value of a packed color
+   *
+   * @param rgb the packed color
+   * @return the blue value
+   */
+  static int blue(int rgb) {
+    return rgb & 0xFF;
+  }
+
+  /**
+   * Scale the brightness of a packed color
+   *
+   * @param rgb the packed color
+   * @param fraction the brightness fraction, clamped to 0-1
+   * @return the scaled packed color
+   */
+  static int scale(int rgb, double fraction) {
+    double f = Math.max(0.0, Math.min(1.0, fraction));
+    return rgb(
+        (int) Math.round(red(rgb) * f),
+        (int) Math.round(green(rgb) * f),
+        (int) Math.round(blue(rgb) * f));
+  }
+
+  /**
+   * Convert an HSV color to a packed color, using the same ranges as {@link
+   * edu.wpi.first.wpilibj.AddressableLEDBuffer#setHSV(int, int, int, int)}.
+   *
+   * @param h the hue, 0-180
+   * @param s the saturation, 0-255
+   * @param v the value, 0-255
+   * @return the packed 0xRRGGBB color
+   */
+  static int hsv(int h, int s, int v) {
+    if (s == 0) {
+      return rgb(v, v, v);
+    }
+    int chroma = (s * v) / 255;
+    int region = (h / 30) % 6;
+    int remainder = (int) Math.round((h % 30) * (255 / 30.0));
+    int m = v - chroma;
+    int x = (chroma * remainder) >> 8;
+    switch (region) {
+      case 0:
+        return rgb(v, x + m, m);
+      case 1:
+        return rgb(v - x, v, m);
+      case 2:
+        return rgb(m, v, x + m);
+      case 3:
+        return rgb(m, v - x, v);
+      case 4:
+        return rgb(x + m, m, v);
+      default:
+        return rgb(v, m, v - x);
+    }
+  }
+
+  private static int clamp(int value) {
+    return Math.max(0, Math.min(255, value));
+  }
+}
@@ -24,32 +24,36 @@ public class SegmentedLedSystem extends GenericSubsystem {
   private AddressableLED m_led;
 
   private AddressableLEDBuffer m_ledBuffer;
-  private AddressableLEDBuffer m_ledOff;
-  private boolean needsUpdate = false;
+  /** Colors rendered this loop, three bytes (RGB) per LED */
+  private final byte[] frame;
+  /** Colors last pushed to the strip, three bytes (RGB) per LED */
+  private final byte[] pushedFrame;
 
   private Color currColor = Color.OFF;
   public final String ALL = "All";
 
-  private Map<String, LEDStripSegment> ledStripSegments =
-      new HashMap<>(); // Might need to be implemented differently
+  private Map<String, LEDStripSegment> ledStripSegments = new HashMap<>();
+  /** The segments in the order they were added, which is also the order they are rendered */
+  private final List<LEDStripSegment> segments = new ArrayList<>();
   private List<LoggedMechanismLigament2d> simLEDs = new ArrayList<>();
 
   public SegmentedLedSystem(int port, int length, LoggedMechanism2d simulator) {
     super(simulator);
     m_led = new AddressableLED(port);
     m_ledBuffer = new AddressableLEDBuffer(length);
-    m_ledOff = new AddressableLEDBuffer(length);
+    frame = new byte[length * 3];
+    pushedFrame = new byte[length * 3];
 
     m_led.setLength(m_ledBuffer.getLength());
 
     LEDStripSegment all = new LEDStripSegment(0, length - 1, currColor);
-    this.ledStripSegments.put(ALL, all);
+    putSegment(ALL, all);
     all.setActive(false);
     all.on();
     all.setColor(currColor);
 
     for (int i = 0; i < m_ledBuffer.getLength(); i++) {
-      m_ledOff.setRGB(i, 0, 0, 0);
+      m_ledBuffer.setRGB(i, 0, 0, 0);
       LoggedMechanismRoot2d ledRoot = mechanismSimulation.getRoot("LEDRoot " + i, i / 100.0, 1.0);
       LoggedMechanismLigament2d led =
           new LoggedMechanismLigament2d("LED " + 1, 0.02, -90, 2, Color.OFF.getColor8Bit());
@@ -61,44 +65,67 @@ public class SegmentedLedSystem extends GenericSubsystem {
     m_led.start();
   }
 
+  /**
+   * Renders the active segments that are animated or were updated into the frame, then pushes the
+   * strip only if some LED changed since the last push.
+   */
   @Override
   public void periodic() {
-    for (String name : ledStripSegments.keySet()) {
-      LEDStripSegment segment = ledStripSegments.get(name);
-      if (segment.isActive() && segment.needsUpdate()) {
-        needsUpdate |= segment.needsUpdate();
-        segment.setNeedsUpdate(false);
-        if (null != segment.setLEDStrip) {
-          segment.setLEDStrip.accept(m_ledBuffer);
-          if (RobotBase.isSimulation()) {
-            for (int i = segment.start(); i <= segment.end(); ++i) {
-              simLEDs.get(i).setColor(m_ledBuffer.getLED8Bit(i));
-            }
-          }
-        } else {
-          for (int i = segment.start(); i <= segment.end(); ++i) {
-            Color8Bit color = segment.setLED.apply(i - segment.start());
-            m_ledBuffer.setLED(i, color);
-            if (RobotBase.isSimulation()) {
-              simLEDs.get(i).setColor(color);
-            }
-          }
+    long now = System.currentTimeMillis();
+    for (int s = 0; s < segments.size(); s++) {
+      LEDStripSegment segment = segments.get(s);
+      if (!segment.isActive() || !(segment.needsUpdate() || segment.isAnimated())) continue;
+      segment.setNeedsUpdate(false);
+      if (null != segment.setLEDStrip) {
+        segment.setLEDStrip.accept(m_ledBuffer);
+        for (int i = segment.start(); i <= segment.end(); ++i) {
+          frame[i * 3] = (byte) m_ledBuffer.getRed(i);
+          frame[i * 3 + 1] = (byte) m_ledBuffer.getGreen(i);
+          frame[i * 3 + 2] = (byte) m_ledBuffer.getBlue(i);
         }
+      } else {
+        segment.render(frame, now);
       }
     }
-    if (needsUpdate) {
+
+    boolean changed = false;
+    for (int i = 0; i < frame.length; i += 3) {
+      if (frame[i] != pushedFrame[i]
+          || frame[i + 1] != pushedFrame[i + 1]
+          || frame[i + 2] != pushedFrame[i + 2]) {
+        pushedFrame[i] = frame[i];
+        pushedFrame[i + 1] = frame[i + 1];
+        pushedFrame[i + 2] = frame[i + 2];
+        int red = frame[i] & 0xFF;
+        int green = frame[i + 1] & 0xFF;
+        int blue = frame[i + 2] & 0xFF;
+        m_ledBuffer.setRGB(i / 3, red, green, blue);
+        if (RobotBase.isSimulation()) {
+          simLEDs.get(i / 3).setColor(new Color8Bit(red, green, blue));
+        }
+        changed = true;
+      }
+    }
+    if (changed) {
       m_led.setData(m_ledBuffer);
-      needsUpdate = false;
     }
   }
 
+  private void putSegment(String name, LEDStripSegment segment) {
+    LEDStripSegment previous = ledStripSegments.put(name, segment);
+    if (null != previous) {
+      segments.remove(previous);
+    }
+    segments.add(segment);
+  }
+
   public LEDStripSegment getStrip(String name) {
     return ledStripSegments.get(name);
   }
 
   public LEDStripSegment addLedSegment(String name, int start, int end, Color color) {
     LEDStripSegment segment = new LEDStripSegment(start, end, color);
-    ledStripSegments.put(name, segment);
+    putSegment(name, segment);
     return segment;
   }
 
@@ -106,6 +133,17 @@ public class SegmentedLedSystem extends GenericSubsystem {
     ledStripSegments.get(name).setLedAction(state);
   }
 
+  /**
+   * Set the pattern of a segment
+   *
+   * @param name the name of the segment
+   * @param pattern the pattern
+   * @param animated whether the pattern changes with time
+   */
+  public void setLedSegmentPattern(String name, LedPattern pattern, boolean animated) {
+    ledStripSegments.get(name).setPattern(pattern, animated);
+  }
+
   public void setLedSegmentColor(String name, Color color) {
     ledStripSegments.get(name).setColor(color);
   }
@@ -118,13 +156,23 @@ public class SegmentedLedSystem extends GenericSubsystem {
     ledStripSegments.values().stream().forEach(it -> it.setActive(false));
     ledStripSegments.get(ALL).setLedAction(state);
     ledStripSegments.get(ALL).setActive(true);
-    needsUpdate = true;
   }
 
   public void setWholeStripState(Consumer<AddressableLEDBuffer> state) {
     ledStripSegments.values().stream().forEach(it -> it.setActive(false));
     ledStripSegments.get(ALL).setLedAction(state);
     ledStripSegments.get(ALL).setActive(true);
-    needsUpdate = true;
+  }
+
+  /**
+   * Set the pattern of the whole strip, deactivating the other segments
+   *
+   * @param pattern the pattern
+   * @param animated whether the pattern changes with time
+   */
+  public void setWholeStripState(LedPattern pattern, boolean animated) {
+    ledStripSegments.values().stream().forEach(it -> it.setActive(false));
+    ledStripSegments.get(ALL).setPattern(pattern, animated);
+    ledStripSegments.get(ALL).setActive(true);
   }
 }
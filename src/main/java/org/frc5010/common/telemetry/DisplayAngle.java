@@ -148,8 +148,9 @@ public class DisplayAngle extends DisplayableValue {
    * @param publish - whether or not to publish
    */
   public void setAngle(final Angle unitAngle, final boolean publish) {
+    boolean changed = angle_.baseUnitMagnitude() != unitAngle.baseUnitMagnitude();
     angle_.mut_setBaseUnitMagnitude(unitAngle.baseUnitMagnitude());
-    publish(publish);
+    publish(publish && changed);
   }
 
   /**
@@ -171,16 +172,22 @@ public class DisplayAngle extends DisplayableValue {
   }
 
   /**
-   * Publishes the current angle to the network table if the publish flag is true.
+   * Publishes the current angle to the network table if the publish flag is true, or queues it for
+   * the next flush when the display values helper defers publishing.
    *
    * @param publish - flag indicating whether to publish the angle
    */
   protected void publish(boolean publish) {
-    if (publish && isDisplayed_) {
-      publisher_.set(angle_.in(unit_));
+    if (publish) {
+      requestPublish();
     }
   }
 
+  @Override
+  protected void publishValue() {
+    publisher_.set(angle_.in(unit_));
+  }
+
   /**
    * Retrieves the current angle.
    *
@@ -210,4 +217,16 @@ public class DisplayAngle extends DisplayableValue {
     displayValuesHelper_.registerListener(() -> setAngle(supplier.get()));
     return this;
   }
+
+  /**
+   * Updates this angle from the supplier on every thread-safe update, see {@link
+   * DisplayableValue#registerThreadSafeUpdate(Runnable)}.
+   *
+   * @param supplier the thread-safe supplier of the angle
+   * @return this object
+   */
+  public DisplayAngle updateWithThreadSafe(Supplier<Angle> supplier) {
+    registerThreadSafeUpdate(() -> setAngle(supplier.get()));
+    return this;
+  }
 }
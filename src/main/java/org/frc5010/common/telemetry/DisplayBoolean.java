@@ -13,7 +13,7 @@ import org.frc5010.common.arch.GenericRobot.LogLevel;
 public class DisplayBoolean extends DisplayableValue {
   // Variables
   /** The value being displayed */
-  protected boolean value_;
+  protected volatile boolean value_;
   /** The topic */
   protected BooleanTopic topic_;
   /** The publisher */
@@ -72,7 +72,7 @@ public class DisplayBoolean extends DisplayableValue {
    *
    * @return the value
    */
-  public synchronized boolean getValue() {
+  public boolean getValue() {
     return value_;
   }
 
@@ -82,7 +82,7 @@ public class DisplayBoolean extends DisplayableValue {
    *
    * @param value the value to set
    */
-  public synchronized void setValue(final boolean value) {
+  public void setValue(final boolean value) {
     setValue(value, true);
   }
 
@@ -92,13 +92,19 @@ public class DisplayBoolean extends DisplayableValue {
    * @param value the value to set
    * @param publish whether or not to publish the value
    */
-  public synchronized void setValue(final boolean value, final boolean publish) {
+  public void setValue(final boolean value, final boolean publish) {
+    boolean changed = value_ != value;
     value_ = value;
-    if (publish && isDisplayed_) {
-      publisher_.set(value_);
+    if (publish && changed) {
+      requestPublish();
     }
   }
 
+  @Override
+  protected void publishValue() {
+    publisher_.set(value_);
+  }
+
   /**
    * Registers a listener to the display values helper to update this boolean with the result of the
    * given supplier when the listener is called.
@@ -110,4 +116,16 @@ public class DisplayBoolean extends DisplayableValue {
     displayValuesHelper_.registerListener(() -> setValue(supplier.getAsBoolean()));
     return this;
   }
+
+  /**
+   * Updates this boolean from the supplier on every thread-safe update, see {@link
+   * DisplayableValue#registerThreadSafeUpdate(Runnable)}.
+   *
+   * @param supplier the thread-safe supplier of the boolean
+   * @return this object
+   */
+  public DisplayBoolean updateWithThreadSafe(BooleanSupplier supplier) {
+    registerThreadSafeUpdate(() -> setValue(supplier.getAsBoolean()));
+    return this;
+  }
 }
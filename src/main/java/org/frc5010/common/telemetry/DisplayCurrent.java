@@ -155,8 +155,9 @@ public class DisplayCurrent extends DisplayableValue {
    * @param publish - whether or not to publish the value
    */
   public void setCurrent(final Current current, final boolean publish) {
+    boolean changed = current_.baseUnitMagnitude() != current.baseUnitMagnitude();
     current_.mut_setBaseUnitMagnitude(current.baseUnitMagnitude());
-    publish(publish);
+    publish(publish && changed);
   }
 
   /**
@@ -169,16 +170,22 @@ public class DisplayCurrent extends DisplayableValue {
   }
 
   /**
-   * Publishes the Current to the network table if the publish flag is true.
+   * Publishes the Current to the network table if the publish flag is true, or queues it for the
+   * next flush when the display values helper defers publishing.
    *
    * @param publish - flag indicating whether to publish the current
    */
   protected void publish(boolean publish) {
-    if (publish && isDisplayed_) {
-      publisher_.set(current_.in(unit_));
+    if (publish) {
+      requestPublish();
     }
   }
 
+  @Override
+  protected void publishValue() {
+    publisher_.set(current_.in(unit_));
+  }
+
   /**
    * Gets the Current
    *
@@ -208,4 +215,16 @@ public class DisplayCurrent extends DisplayableValue {
     displayValuesHelper_.registerListener(() -> setCurrent(supplier.get()));
     return this;
   }
+
+  /**
+   * Updates this current from the supplier on every thread-safe update, see {@link
+   * DisplayableValue#registerThreadSafeUpdate(Runnable)}.
+   *
+   * @param supplier the thread-safe supplier of the current
+   * @return this object
+   */
+  public DisplayCurrent updateWithThreadSafe(Supplier<Current> supplier) {
+    registerThreadSafeUpdate(() -> setCurrent(supplier.get()));
+    return this;
+  }
 }
@@ -13,13 +13,15 @@ import org.frc5010.common.arch.GenericRobot.LogLevel;
 public class DisplayDouble extends DisplayableValue {
   // Variables
   /** The value */
-  protected double value_;
+  protected volatile double value_;
   /** The topic */
   protected DoubleTopic topic_;
   /** The publisher */
   protected DoublePublisher publisher_;
   /** The subscriber */
   protected DoubleSubscriber subscriber_;
+  /** The tunable group notified of changes, or null */
+  protected TunableGroup tunableGroup_;
 
   // Constructor
   /**
@@ -73,7 +75,7 @@ public class DisplayDouble extends DisplayableValue {
    *
    * @return the value
    */
-  public synchronized double getValue() {
+  public double getValue() {
     return value_;
   }
 
@@ -83,7 +85,7 @@ public class DisplayDouble extends DisplayableValue {
    *
    * @param value the value
    */
-  public synchronized void setValue(final double value) {
+  public void setValue(final double value) {
     setValue(value, true);
   }
 
@@ -93,11 +95,29 @@ public class DisplayDouble extends DisplayableValue {
    * @param value the value to set
    * @param publish whether or not to publish the value
    */
-  public synchronized void setValue(final double value, final boolean publish) {
+  public void setValue(final double value, final boolean publish) {
+    boolean changed = Double.doubleToLongBits(value_) != Double.doubleToLongBits(value);
     value_ = value;
-    if (publish && isDisplayed_) {
-      publisher_.set(value_);
+    if (changed && null != tunableGroup_) {
+      tunableGroup_.bump();
     }
+    if (publish && changed) {
+      requestPublish();
+    }
+  }
+
+  /**
+   * Sets the tunable group whose version is bumped when this value changes
+   *
+   * @param group the group, see {@link TunableGroup#add(DisplayDouble...)}
+   */
+  void setTunableGroup(TunableGroup group) {
+    tunableGroup_ = group;
+  }
+
+  @Override
+  protected void publishValue() {
+    publisher_.set(value_);
   }
 
   /**
@@ -111,4 +131,16 @@ public class DisplayDouble extends DisplayableValue {
     displayValuesHelper_.registerListener(() -> setValue(supplier.getAsDouble()));
     return this;
   }
+
+  /**
+   * Updates this double from the supplier on every thread-safe update, see {@link
+   * DisplayableValue#registerThreadSafeUpdate(Runnable)}.
+   *
+   * @param supplier the thread-safe supplier of the double
+   * @return this object
+   */
+  public DisplayDouble updateWithThreadSafe(DoubleSupplier supplier) {
+    registerThreadSafeUpdate(() -> setValue(supplier.getAsDouble()));
+    return this;
+  }
 }
@@ -13,7 +13,7 @@ import org.frc5010.common.arch.GenericRobot.LogLevel;
 public class DisplayFloat extends DisplayableValue {
   // Variables
   /** The value */
-  protected float value_;
+  protected volatile float value_;
   /** The topic */
   protected FloatTopic topic_;
   /** The publisher */
@@ -73,7 +73,7 @@ public class DisplayFloat extends DisplayableValue {
    *
    * @return the value
    */
-  public synchronized float getValue() {
+  public float getValue() {
     return value_;
   }
 
@@ -83,7 +83,7 @@ public class DisplayFloat extends DisplayableValue {
    *
    * @param value the value to set
    */
-  public synchronized void setValue(final float value) {
+  public void setValue(final float value) {
     setValue(value, true);
   }
 
@@ -93,13 +93,19 @@ public class DisplayFloat extends DisplayableValue {
    * @param value the value
    * @param publish - whether or not to publish
    */
-  public synchronized void setValue(final float value, final boolean publish) {
+  public void setValue(final float value, final boolean publish) {
+    boolean changed = Float.floatToIntBits(value_) != Float.floatToIntBits(value);
     value_ = value;
-    if (publish && isDisplayed_) {
-      publisher_.set(value_);
+    if (publish && changed) {
+      requestPublish();
     }
   }
 
+  @Override
+  protected void publishValue() {
+    publisher_.set(value_);
+  }
+
   /**
    * Registers a listener to the display values helper to update this float with the result of the
    * given supplier when the listener is called.
@@ -111,4 +117,16 @@ public class DisplayFloat extends DisplayableValue {
     displayValuesHelper_.registerListener(() -> setValue(supplier.getAsFloat()));
     return this;
   }
+
+  /**
+   * Updates this float from the supplier on every thread-safe update, see {@link
+   * DisplayableValue#registerThreadSafeUpdate(Runnable)}.
+   *
+   * @param supplier the thread-safe supplier of the float
+   * @return this object
+   */
+  public DisplayFloat updateWithThreadSafe(FloatSupplier supplier) {
+    registerThreadSafeUpdate(() -> setValue(supplier.getAsFloat()));
+    return this;
+  }
 }
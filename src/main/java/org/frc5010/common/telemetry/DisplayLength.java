@@ -154,8 +154,9 @@ public class DisplayLength extends DisplayableValue {
    * @param publish - whether or not to publish the value
    */
   public void setLength(final Distance length, final boolean publish) {
+    boolean changed = length_.baseUnitMagnitude() != length.baseUnitMagnitude();
     length_.mut_setBaseUnitMagnitude(length.baseUnitMagnitude());
-    publish(publish);
+    publish(publish && changed);
   }
 
   /**
@@ -168,16 +169,22 @@ public class DisplayLength extends DisplayableValue {
   }
 
   /**
-   * Publishes the current length to the network table if the publish flag is true.
+   * Publishes the current length to the network table if the publish flag is true, or queues it for
+   * the next flush when the display values helper defers publishing.
    *
    * @param publish - flag indicating whether to publish the length
    */
   protected void publish(boolean publish) {
-    if (publish && isDisplayed_) {
-      publisher_.set(length_.in(unit_));
+    if (publish) {
+      requestPublish();
     }
   }
 
+  @Override
+  protected void publishValue() {
+    publisher_.set(length_.in(unit_));
+  }
+
   /**
    * Get the length
    *
@@ -203,4 +210,16 @@ public class DisplayLength extends DisplayableValue {
     displayValuesHelper_.registerListener(() -> setLength(supplier.get()));
     return this;
   }
+
+  /**
+   * Updates this length from the supplier on every thread-safe update, see {@link
+   * DisplayableValue#registerThreadSafeUpdate(Runnable)}.
+   *
+   * @param supplier the thread-safe supplier of the length
+   * @return this object
+   */
+  public DisplayLength updateWithThreadSafe(Supplier<Distance> supplier) {
+    registerThreadSafeUpdate(() -> setLength(supplier.get()));
+    return this;
+  }
 }
@@ -13,7 +13,7 @@ import org.frc5010.common.arch.GenericRobot.LogLevel;
 public class DisplayLong extends DisplayableValue {
   // Variables
   /** The value */
-  protected long value_;
+  protected volatile long value_;
   /** The topic */
   protected IntegerTopic topic_;
   /** The publisher */
@@ -73,7 +73,7 @@ public class DisplayLong extends DisplayableValue {
    *
    * @return the value
    */
-  public synchronized long getValue() {
+  public long getValue() {
     return value_;
   }
 
@@ -83,7 +83,7 @@ public class DisplayLong extends DisplayableValue {
    *
    * @param value the value
    */
-  public synchronized void setValue(final long value) {
+  public void setValue(final long value) {
     setValue(value, true);
   }
 
@@ -93,13 +93,19 @@ public class DisplayLong extends DisplayableValue {
    * @param value the value
    * @param publish - whether or not to publish
    */
-  public synchronized void setValue(final long value, final boolean publish) {
+  public void setValue(final long value, final boolean publish) {
+    boolean changed = value_ != value;
     value_ = value;
-    if (publish && isDisplayed_) {
-      publisher_.set(value_);
+    if (publish && changed) {
+      requestPublish();
     }
   }
 
+  @Override
+  protected void publishValue() {
+    publisher_.set(value_);
+  }
+
   /**
    * Registers a listener to the display values helper to update this long with the result of the
    * given supplier when the listener is called.
@@ -111,4 +117,16 @@ public class DisplayLong extends DisplayableValue {
     displayValuesHelper_.registerListener(() -> setValue(supplier.getAsLong()));
     return this;
   }
+
+  /**
+   * Updates this long from the supplier on every thread-safe update, see {@link
+   * DisplayableValue#registerThreadSafeUpdate(Runnable)}.
+   *
+   * @param supplier the thread-safe supplier of the long
+   * @return this object
+   */
+  public DisplayLong updateWithThreadSafe(LongSupplier supplier) {
+    registerThreadSafeUpdate(() -> setValue(supplier.getAsLong()));
+    return this;
+  }
 }
@@ -6,6 +6,7 @@ import edu.wpi.first.networktables.StringPublisher;
 import edu.wpi.first.networktables.StringSubscriber;
 import edu.wpi.first.networktables.StringTopic;
 import java.util.EnumSet;
+import java.util.Objects;
 import java.util.function.Supplier;
 import org.frc5010.common.arch.GenericRobot.LogLevel;
 
@@ -13,7 +14,7 @@ import org.frc5010.common.arch.GenericRobot.LogLevel;
 public class DisplayString extends DisplayableValue {
   // Variables
   /** The value */
-  protected String value_;
+  protected volatile String value_;
   /** The topic */
   protected StringTopic topic_;
   /** The publisher */
@@ -73,7 +74,7 @@ public class DisplayString extends DisplayableValue {
    *
    * @return the value
    */
-  public synchronized String getValue() {
+  public String getValue() {
     return value_;
   }
 
@@ -83,7 +84,7 @@ public class DisplayString extends DisplayableValue {
    *
    * @param value the value to set
    */
-  public synchronized void setValue(final String value) {
+  public void setValue(final String value) {
     setValue(value, true);
   }
 
@@ -93,13 +94,19 @@ public class DisplayString extends DisplayableValue {
    * @param value the value to set
    * @param publish whether or not to publish the value
    */
-  public synchronized void setValue(final String value, final boolean publish) {
+  public void setValue(final String value, final boolean publish) {
+    boolean changed = !Objects.equals(value_, value);
     value_ = value;
-    if (publish && isDisplayed_) {
-      publisher_.set(value_);
+    if (publish && changed) {
+      requestPublish();
     }
   }
 
+  @Override
+  protected void publishValue() {
+    publisher_.set(value_);
+  }
+
   /**
    * Registers a listener to the display values helper to update this string with the result of the
    * given supplier when the listener is called.
@@ -111,4 +118,16 @@ public class DisplayString extends DisplayableValue {
     displayValuesHelper_.registerListener(() -> setValue(supplier.get()));
     return this;
   }
+
+  /**
+   * Updates this string from the supplier on every thread-safe update, see {@link
+   * DisplayableValue#registerThreadSafeUpdate(Runnable)}.
+   *
+   * @param supplier the thread-safe supplier of the string
+   * @return this object
+   */
+  public DisplayString updateWithThreadSafe(Supplier<String> supplier) {
+    registerThreadSafeUpdate(() -> setValue(supplier.get()));
+    return this;
+  }
 }
@@ -149,8 +149,9 @@ public class DisplayTime extends DisplayableValue {
    * @param publish - whether or not to publish
    */
   public void setTime(final Time time, final boolean publish) {
+    boolean changed = time_.baseUnitMagnitude() != time.baseUnitMagnitude();
     time_.mut_setBaseUnitMagnitude(time.baseUnitMagnitude());
-    publish(publish);
+    publish(publish && changed);
   }
 
   /**
@@ -172,16 +173,22 @@ public class DisplayTime extends DisplayableValue {
   }
 
   /**
-   * Publishes the current time to the network table if the publish flag is true.
+   * Publishes the current time to the network table if the publish flag is true, or queues it for
+   * the next flush when the display values helper defers publishing.
    *
    * @param publish - flag indicating whether to publish the time
    */
   protected void publish(boolean publish) {
-    if (publish && isDisplayed_) {
-      publisher_.set(time_.in(unit_));
+    if (publish) {
+      requestPublish();
     }
   }
 
+  @Override
+  protected void publishValue() {
+    publisher_.set(time_.in(unit_));
+  }
+
   /**
    * Gets the current time
    *
@@ -207,4 +214,16 @@ public class DisplayTime extends DisplayableValue {
     displayValuesHelper_.registerListener(() -> setTime(supplier.get()));
     return this;
   }
+
+  /**
+   * Updates this time from the supplier on every thread-safe update, see {@link
+   * DisplayableValue#registerThreadSafeUpdate(Runnable)}.
+   *
+   * @param supplier the thread-safe supplier of the time
+   * @return this object
+   */
+  public DisplayTime updateWithThreadSafe(Supplier<Time> supplier) {
+    registerThreadSafeUpdate(() -> setTime(supplier.get()));
+    return this;
+  }
 }
@@ -11,13 +11,20 @@ import static edu.wpi.first.units.Units.Seconds;
 import static edu.wpi.first.units.Units.Volts;
 
 import edu.wpi.first.util.sendable.Sendable;
+import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.shuffleboard.BuiltInLayouts;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardLayout;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Supplier;
 import org.frc5010.common.arch.GenericRobot.LogLevel;
 import org.frc5010.common.arch.WpiHelperInterface;
@@ -33,7 +40,20 @@ public class DisplayValuesHelper implements WpiHelperInterface {
   protected LogLevel logLevel = LogLevel.COMPETITION;
 
   protected final List<Runnable> listeners = new ArrayList<>();
+  /** Listeners that may run on the telemetry sampler thread */
+  protected final List<Runnable> threadSafeListeners = new CopyOnWriteArrayList<>();
   protected final List<DisplayableValue> internals = new ArrayList<>();
+  /** Displayed values flushed by {@link #notifyListeners()} in deferred publishing mode */
+  protected final Queue<DisplayableValue> publishedValues = new ConcurrentLinkedQueue<>();
+  /** Identity set of the values in publishedValues, guarded by itself */
+  protected final Set<DisplayableValue> publishedValueSet =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+  /** Whether value changes are published on flush rather than when they are set */
+  protected volatile boolean deferredPublishing = false;
+  /** Whether the thread-safe listeners and the flush run on the telemetry sampler thread */
+  protected volatile boolean backgroundSampling = false;
+  /** Minimum time between publishes of a value in deferred mode, indexed by log level ordinal */
+  protected final long[] minPublishPeriodMicros = new long[LogLevel.values().length];
 
   /**
    * Constructs a DisplayValuesHelper with the specified tab and table names, display state, and
@@ -93,7 +113,7 @@ public class DisplayValuesHelper implements WpiHelperInterface {
   /**
    * Registers a listener to the display values helper. Listeners will be called when the
    * notifyListeners function is called. This function is used to update the display values on the
-   * dashboard.
+   * dashboard. The listener always runs on the main robot loop.
    *
    * @param listener - Runnable to be called when notifyListeners is called
    */
@@ -101,6 +121,18 @@ public class DisplayValuesHelper implements WpiHelperInterface {
     listeners.add(listener);
   }
 
+  /**
+   * Registers a listener that only reads thread-safe state, such as a supplier of immutable values
+   * or volatile fields. When background sampling is enabled the listener runs on the telemetry
+   * sampler thread at the sampler's rate, otherwise it runs with the other listeners in
+   * notifyListeners.
+   *
+   * @param listener - Runnable that updates display values from thread-safe suppliers
+   */
+  public void registerThreadSafeListener(Runnable listener) {
+    threadSafeListeners.add(listener);
+  }
+
   /**
    * Removes a listener from the display values helper. This listener will not be called when
    * notifyListeners is called.
@@ -109,16 +141,122 @@ public class DisplayValuesHelper implements WpiHelperInterface {
    */
   public void unregisterListener(Runnable listener) {
     listeners.remove(listener);
+    threadSafeListeners.remove(listener);
   }
 
   /**
    * Calls all registered listeners. This should be called when a value is updated so that all
-   * dashboard values are updated.
+   * dashboard values are updated. In deferred publishing mode the changed values are then flushed
+   * to NetworkTables. With background sampling enabled, only the main-thread listeners run here
+   * and the sampler thread does the rest.
    */
   public void notifyListeners() {
-    for (Runnable listener : listeners) {
+    for (int i = 0; i < listeners.size(); i++) {
+      listeners.get(i).run();
+    }
+    if (backgroundSampling) return;
+    for (Runnable listener : threadSafeListeners) {
       listener.run();
     }
+    if (deferredPublishing) {
+      flush();
+    }
+  }
+
+  /**
+   * Moves the thread-safe listeners and the publishing of changed values onto the shared {@link
+   * TelemetrySampler} thread. Enabling sampling also enables deferred publishing, so main-thread
+   * listeners only mark their values and the sampler publishes them.
+   *
+   * @param enabled true to sample in the background
+   */
+  public void setBackgroundSampling(boolean enabled) {
+    if (enabled) {
+      deferredPublishing = true;
+      backgroundSampling = true;
+      TelemetrySampler.add(this);
+    } else {
+      TelemetrySampler.remove(this);
+      backgroundSampling = false;
+    }
+  }
+
+  /**
+   * Whether the thread-safe listeners run on the telemetry sampler thread.
+   *
+   * @return true if background sampling is enabled
+   */
+  public boolean isBackgroundSampling() {
+    return backgroundSampling;
+  }
+
+  /** Runs the thread-safe listeners and flushes the changed values. Sampler thread only. */
+  void sample() {
+    for (Runnable listener : threadSafeListeners) {
+      listener.run();
+    }
+    flush();
+  }
+
+  /**
+   * Sets whether value changes are published to NetworkTables when they are set, or collected and
+   * published once per {@link #notifyListeners()} call. Deferred publishing lets values be set from
+   * any thread without locking and enables the per-level rate limits, but requires that
+   * notifyListeners is called periodically, as {@link
+   * org.frc5010.common.arch.GenericSubsystem#periodic()} does.
+   *
+   * @param deferred true to publish changed values on flush
+   */
+  public void setDeferredPublishing(boolean deferred) {
+    if (backgroundSampling && !deferred) {
+      throw new IllegalStateException("Background sampling requires deferred publishing");
+    }
+    if (deferredPublishing && !deferred) {
+      flush(); // Don't strand values that are waiting for a flush
+    }
+    deferredPublishing = deferred;
+  }
+
+  /**
+   * Whether value changes are published on flush rather than when they are set.
+   *
+   * @return true if publishing is deferred
+   */
+  public boolean isDeferredPublishing() {
+    return deferredPublishing;
+  }
+
+  /**
+   * Limits how often a changed value created at the given log level is published in deferred
+   * mode, e.g. 10 Hz for DEBUG values and 50 Hz for COMPETITION values. The latest value is
+   * published once the period has elapsed.
+   *
+   * @param level the log level of the values to limit
+   * @param maxRateHz the maximum publish rate in Hz, or 0 for no limit
+   */
+  public void setPublishRateLimit(LogLevel level, double maxRateHz) {
+    minPublishPeriodMicros[level.ordinal()] = maxRateHz > 0 ? (long) (1e6 / maxRateHz) : 0;
+  }
+
+  /** Publishes the values that changed since the last flush, subject to the rate limits. */
+  public void flush() {
+    long now = RobotController.getFPGATime();
+    for (DisplayableValue value : publishedValues) {
+      value.flush(now, minPublishPeriodMicros[value.getLogLevel().ordinal()]);
+    }
+  }
+
+  /**
+   * Registers a displayed value so that it is flushed in deferred publishing mode.
+   *
+   * @param value the value
+   */
+  void registerPublishedValue(DisplayableValue value) {
+    synchronized (publishedValueSet) {
+      if (publishedValueSet.add(value)) {
+        publishedValues.add(value);
+      }
+    }
   }
 
   /**
@@ -130,8 +268,22 @@ public class DisplayValuesHelper implements WpiHelperInterface {
    * @param value a Supplier that returns the value to be displayed
    */
   public void display(String key, Supplier<String> value) {
-    internals.add(new DisplayString("", key, getNtFolder()).setDisplayValuesHelper(this));
-    registerListener(value::get);
+    DisplayString string = new DisplayString("", key, getNtFolder());
+    internals.add(string.setDisplayValuesHelper(this));
+    registerListener(() -> string.setValue(value.get()));
+  }
+
+  /**
+   * Registers a value to be displayed on the dashboard from a thread-safe supplier, which may be
+   * evaluated on the telemetry sampler thread. See {@link #registerThreadSafeListener(Runnable)}.
+   *
+   * @param key the name of the value to be displayed
+   * @param value a thread-safe Supplier that returns the value to be displayed
+   */
+  public void displayThreadSafe(String key, Supplier<String> value) {
+    DisplayString string = new DisplayString("", key, getNtFolder());
+    internals.add(string.setDisplayValuesHelper(this));
+    string.updateWithThreadSafe(value);
   }
 
   public void display(String key, Sendable value) {
@@ -154,8 +154,9 @@ public class DisplayVoltage extends DisplayableValue {
    * @param publish - whether or not to publish the value
    */
   public void setVoltage(final Voltage voltage, final boolean publish) {
+    boolean changed = voltage_.baseUnitMagnitude() != voltage.baseUnitMagnitude();
     voltage_.mut_setBaseUnitMagnitude(voltage.baseUnitMagnitude());
-    publish(publish);
+    publish(publish && changed);
   }
 
   /**
@@ -168,16 +169,22 @@ public class DisplayVoltage extends DisplayableValue {
   }
 
   /**
-   * Publishes the current voltage to the network table if the publish flag is true.
+   * Publishes the current voltage to the network table if the publish flag is true, or queues it
+   * for the next flush when the display values helper defers publishing.
    *
    * @param publish - flag indicating whether to publish the voltage
    */
   protected void publish(boolean publish) {
-    if (publish && isDisplayed_) {
-      publisher_.set(voltage_.in(unit_));
+    if (publish) {
+      requestPublish();
     }
   }
 
+  @Override
+  protected void publishValue() {
+    publisher_.set(voltage_.in(unit_));
+  }
+
   /**
    * Gets the current voltage
    *
@@ -7,12 +7,18 @@ public abstract class DisplayableValue {
   protected final String name_;
   /** The table */
   protected final String table_;
+  /** The log level */
+  protected final LogLevel logLevel_;
   /** The listener handle */
   protected int listenerHandle_;
   /** Display mode */
   protected final boolean isDisplayed_;
   /** Display values helper */
   protected DisplayValuesHelper displayValuesHelper_;
+  /** Whether a changed value is waiting for the next flush */
+  private volatile boolean pending_ = false;
+  /** FPGA time of the last flushed publish in microseconds, MIN_VALUE if never flushed */
+  private long lastPublishMicros_ = Long.MIN_VALUE;
 
   /**
    * Add a value to the dashboard
@@ -23,11 +29,68 @@ public abstract class DisplayableValue {
   public DisplayableValue(final String name, final String table, LogLevel logLevel) {
     name_ = name;
     table_ = table;
+    logLevel_ = logLevel;
     isDisplayed_ = DisplayValuesHelper.isAtLogLevel(logLevel);
   }
 
   public DisplayableValue setDisplayValuesHelper(DisplayValuesHelper displayValuesHelper) {
     displayValuesHelper_ = displayValuesHelper;
+    if (isDisplayed_) {
+      displayValuesHelper.registerPublishedValue(this);
+    }
     return this;
   }
+
+  /**
+   * Registers an update of this value as a thread-safe listener on the display values helper. The
+   * update runs on the telemetry sampler thread when background sampling is enabled, so it must
+   * only read state that is safe to read from that thread.
+   *
+   * @param update sets this value from its thread-safe source
+   */
+  protected void registerThreadSafeUpdate(Runnable update) {
+    displayValuesHelper_.registerThreadSafeListener(update);
+  }
+
+  /**
+   * Get the log level the value was created at
+   *
+   * @return the log level
+   */
+  public LogLevel getLogLevel() {
+    return logLevel_;
+  }
+
+  /**
+   * Publishes the current value now, or, if the display values helper defers publishing, marks it
+   * to be published by the helper's next flush. Callers only request a publish when the value has
+   * changed.
+   */
+  protected void requestPublish() {
+    if (!isDisplayed_) return;
+    if (null != displayValuesHelper_ && displayValuesHelper_.isDeferredPublishing()) {
+      pending_ = true;
+    } else {
+      publishValue();
+    }
+  }
+
+  /**
+   * Publishes the value if it changed since the last flush and the rate limit allows it.
+   *
+   * @param nowMicros the current FPGA time in microseconds
+   * @param minPeriodMicros the minimum time between publishes in microseconds
+   */
+  void flush(long nowMicros, long minPeriodMicros) {
+    if (!pending_) return;
+    if (lastPublishMicros_ != Long.MIN_VALUE && nowMicros - lastPublishMicros_ < minPeriodMicros) {
+      return;
+    }
+    pending_ = false; // Cleared before reading so a concurrent write is published next flush
+    lastPublishMicros_ = nowMicros;
+    publishValue();
+  }
+
+  /** Writes the current value to the publisher. Only called when the value is displayed. */
+  protected abstract void publishValue();
 }
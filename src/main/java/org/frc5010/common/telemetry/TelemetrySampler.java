@@ -0,0 +1,85 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.frc5010.common.telemetry;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shared background thread that samples the thread-safe listeners of the {@link
+ * DisplayValuesHelper}s that enabled background sampling, and flushes their changed values to
+ * NetworkTables. This keeps pure telemetry work such as supplier evaluation, string formatting and
+ * publishing off the main robot loop.
+ *
+ * <p>The thread is started when the first helper is added and runs at {@link #DEFAULT_RATE} unless
+ * changed with {@link #setRate(double)}.
+ */
+public class TelemetrySampler {
+  /** Default sampling rate in Hz */
+  public static final double DEFAULT_RATE = 10.0;
+
+  private static final List<DisplayValuesHelper> helpers = new CopyOnWriteArrayList<>();
+  private static volatile long periodMillis = (long) (1000 / DEFAULT_RATE);
+  private static Thread thread;
+
+  private TelemetrySampler() {}
+
+  /**
+   * Sets the rate at which the listeners are sampled and the values published.
+   *
+   * @param rateHz the sampling rate in Hz
+   */
+  public static void setRate(double rateHz) {
+    if (rateHz <= 0) {
+      throw new IllegalArgumentException("Sampling rate must be positive: " + rateHz);
+    }
+    periodMillis = Math.max(1, (long) (1000 / rateHz));
+  }
+
+  /**
+   * Adds a helper to be sampled, starting the sampler thread if needed.
+   *
+   * @param helper the helper
+   */
+  static synchronized void add(DisplayValuesHelper helper) {
+    if (!helpers.contains(helper)) {
+      helpers.add(helper);
+    }
+    if (null == thread) {
+      thread = new Thread(TelemetrySampler::run, "TelemetrySampler");
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  /**
+   * Stops sampling a helper.
+   *
+   * @param helper the helper
+   */
+  static void remove(DisplayValuesHelper helper) {
+    helpers.remove(helper);
+  }
+
+  private static void run() {
+    while (!Thread.currentThread().isInterrupted()) {
+      long start = System.currentTimeMillis();
+      for (DisplayValuesHelper helper : helpers) {
+        try {
+          helper.sample();
+        } catch (RuntimeException e) {
+          DriverStation.reportError(
+              "Telemetry sampling failed: " + e.getMessage(), e.getStackTrace());
+        }
+      }
+      try {
+        Thread.sleep(Math.max(0, periodMillis - (System.currentTimeMillis() - start)));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
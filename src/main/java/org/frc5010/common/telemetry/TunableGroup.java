@@ -0,0 +1,70 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.frc5010.common.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A group of tunable {@link DisplayDouble}s that share a version counter. Every change to a value
+ * in the group, whether from code or from the dashboard, bumps the version, so consumers such as a
+ * motor controller only need to be reconfigured when the version has changed since they were last
+ * pushed.
+ *
+ * <p>Dashboard changes only bump the version from the NetworkTables listener. The push itself
+ * runs on the thread calling {@link #pushIfChanged(Runnable)}, the robot loop, because the motor
+ * controller configurations it changes are not thread safe. The device configuration is then sent
+ * with the rest of the loop's configuration batch.
+ */
+public class TunableGroup {
+  private final AtomicLong version = new AtomicLong();
+  private volatile long pushedVersion = 0;
+
+  /**
+   * Adds values to the group
+   *
+   * @param values the values
+   * @return this group
+   */
+  public TunableGroup add(DisplayDouble... values) {
+    for (DisplayDouble value : values) {
+      value.setTunableGroup(this);
+    }
+    return this;
+  }
+
+  /** Records a change to a value in the group. */
+  void bump() {
+    version.incrementAndGet();
+  }
+
+  /**
+   * Get the current version of the group
+   *
+   * @return the version, incremented on every change
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /** Marks the current values as pushed, e.g. after the consumer was configured synchronously. */
+  public void markPushed() {
+    pushedVersion = version.get();
+  }
+
+  /**
+   * Runs the push on the calling thread if the group changed since the last push. Changes made
+   * during the push are picked up by the next call.
+   *
+   * @param push reads the values of the group and reconfigures the consumer
+   */
+  public void pushIfChanged(Runnable push) {
+    long current = version.get();
+    if (current == pushedVersion) {
+      return;
+    }
+    pushedVersion = current;
+    push.run();
+  }
+}
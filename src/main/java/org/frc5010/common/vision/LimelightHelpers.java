@@ -4,7 +4,10 @@ package org.frc5010.common.vision;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonFormat.Shape;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.wpi.first.math.geometry.Pose2d;
@@ -23,6 +26,7 @@ import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -518,6 +522,9 @@ public class LimelightHelpers {
     public RawFiducial[] rawFiducials;
     public boolean isMegaTag2;
 
+    /** NetworkTables change time of the array last decoded into this estimate */
+    long sourceLastChange = 0;
+
     /** Instantiates a PoseEstimate object with default values */
     public PoseEstimate() {
       this.pose = new Pose2d();
@@ -587,6 +594,17 @@ public class LimelightHelpers {
 
   private static ObjectMapper mapper;
 
+  private static final JsonFactory jsonFactory = new JsonFactory();
+  private static final LimelightTarget_Fiducial[] NO_FIDUCIALS = new LimelightTarget_Fiducial[0];
+
+  /** Reusable fiducial results per Limelight, tagged with the change time of the JSON they hold */
+  private static class CachedResults {
+    long lastChange = Long.MIN_VALUE;
+    final LimelightResults results = new LimelightResults();
+  }
+
+  private static final Map<String, CachedResults> fiducialResultsCache = new ConcurrentHashMap<>();
+
   /** Print JSON Parse time to the console in milliseconds */
   static boolean profileJSON = false;
 
@@ -735,6 +753,72 @@ public class LimelightHelpers {
         isMegaTag2);
   }
 
+  /**
+   * Decodes a botpose array into a caller-owned estimate. The estimate's RawFiducial objects are
+   * reused when the tag count is unchanged, and nothing is decoded when the array has not changed
+   * since it was last decoded into this estimate.
+   *
+   * @param limelightName Name of the Limelight camera
+   * @param entryName the botpose entry to read
+   * @param isMegaTag2 whether the entry holds a MegaTag2 estimate
+   * @param estimate the estimate to fill, dedicated to this Limelight and entry
+   * @return true if the estimate now holds a new frame
+   */
+  private static boolean decodeBotPoseEstimate(
+      String limelightName, String entryName, boolean isMegaTag2, PoseEstimate estimate) {
+    DoubleArrayEntry poseEntry =
+        LimelightHelpers.getLimelightDoubleArrayEntry(limelightName, entryName);
+    if (poseEntry.getLastChange() == estimate.sourceLastChange) {
+      return false;
+    }
+
+    TimestampedDoubleArray tsValue = poseEntry.getAtomic();
+    double[] poseArray = tsValue.value;
+    estimate.sourceLastChange = tsValue.timestamp;
+    if (poseArray.length == 0) {
+      return false;
+    }
+
+    estimate.pose =
+        poseArray.length < 6
+            ? new Pose2d()
+            : new Pose2d(poseArray[0], poseArray[1], Rotation2d.fromDegrees(poseArray[5]));
+    estimate.latency = extractArrayEntry(poseArray, 6);
+    estimate.tagCount = (int) extractArrayEntry(poseArray, 7);
+    estimate.tagSpan = extractArrayEntry(poseArray, 8);
+    estimate.avgTagDist = extractArrayEntry(poseArray, 9);
+    estimate.avgTagArea = extractArrayEntry(poseArray, 10);
+    estimate.isMegaTag2 = isMegaTag2;
+
+    // Convert server timestamp from microseconds to seconds and adjust for latency
+    estimate.timestampSeconds = (tsValue.timestamp / 1000000.0) - (estimate.latency / 1000.0);
+
+    int valsPerFiducial = 7;
+    int tagCount = estimate.tagCount;
+    if (tagCount < 0 || poseArray.length != 11 + valsPerFiducial * tagCount) {
+      tagCount = 0; // Don't populate fiducials
+    }
+    if (estimate.rawFiducials.length != tagCount) {
+      RawFiducial[] previous = estimate.rawFiducials;
+      estimate.rawFiducials = Arrays.copyOf(previous, tagCount);
+      for (int i = previous.length; i < tagCount; i++) {
+        estimate.rawFiducials[i] = new RawFiducial(0, 0, 0, 0, 0, 0, 0);
+      }
+    }
+    for (int i = 0; i < tagCount; i++) {
+      int baseIndex = 11 + (i * valsPerFiducial);
+      RawFiducial fiducial = estimate.rawFiducials[i];
+      fiducial.id = (int) poseArray[baseIndex];
+      fiducial.txnc = poseArray[baseIndex + 1];
+      fiducial.tync = poseArray[baseIndex + 2];
+      fiducial.ta = poseArray[baseIndex + 3];
+      fiducial.distToCamera = poseArray[baseIndex + 4];
+      fiducial.distToRobot = poseArray[baseIndex + 5];
+      fiducial.ambiguity = poseArray[baseIndex + 6];
+    }
+    return true;
+  }
+
   /**
    * Gets the latest raw fiducial/AprilTag detection results from NetworkTables.
    *
@@ -1293,6 +1377,20 @@ public class LimelightHelpers {
     return getBotPoseEstimate(limelightName, "botpose_wpiblue", false);
   }
 
+  /**
+   * Gets the MegaTag1 pose estimate in the WPILib Blue alliance coordinate system, decoded
+   * into a caller-owned estimate instead of allocating a new one. Keep one estimate per Limelight
+   * for this call.
+   *
+   * @param limelightName Name of the Limelight camera
+   * @param estimate the estimate to fill
+   * @return true if the estimate was updated with a new frame, false if the Limelight has not
+   *     published a new pose since the last call
+   */
+  public static boolean getBotPoseEstimate_wpiBlue(String limelightName, PoseEstimate estimate) {
+    return decodeBotPoseEstimate(limelightName, "botpose_wpiblue", false, estimate);
+  }
+
   /**
    * Gets the MegaTag2 Pose2d and timestamp for use with WPILib pose estimator
    * (addVisionMeasurement) in the WPILib Blue alliance coordinate system. Make sure you are calling
@@ -1305,6 +1403,21 @@ public class LimelightHelpers {
     return getBotPoseEstimate(limelightName, "botpose_orb_wpiblue", true);
   }
 
+  /**
+   * Gets the MegaTag2 pose estimate in the WPILib Blue alliance coordinate system, decoded
+   * into a caller-owned estimate instead of allocating a new one. Keep one estimate per Limelight
+   * for this call.
+   *
+   * @param limelightName Name of the Limelight camera
+   * @param estimate the estimate to fill
+   * @return true if the estimate was updated with a new frame, false if the Limelight has not
+   *     published a new pose since the last call
+   */
+  public static boolean getBotPoseEstimate_wpiBlue_MegaTag2(
+      String limelightName, PoseEstimate estimate) {
+    return decodeBotPoseEstimate(limelightName, "botpose_orb_wpiblue", true, estimate);
+  }
+
   /**
    * Gets the Pose2d for easy use with Odometry vision pose estimator (addVisionMeasurement)
    *
@@ -1328,6 +1441,20 @@ public class LimelightHelpers {
     return getBotPoseEstimate(limelightName, "botpose_wpired", false);
   }
 
+  /**
+   * Gets the MegaTag1 pose estimate in the WPILib Red alliance coordinate system, decoded
+   * into a caller-owned estimate instead of allocating a new one. Keep one estimate per Limelight
+   * for this call.
+   *
+   * @param limelightName Name of the Limelight camera
+   * @param estimate the estimate to fill
+   * @return true if the estimate was updated with a new frame, false if the Limelight has not
+   *     published a new pose since the last call
+   */
+  public static boolean getBotPoseEstimate_wpiRed(String limelightName, PoseEstimate estimate) {
+    return decodeBotPoseEstimate(limelightName, "botpose_wpired", false, estimate);
+  }
+
   /**
    * Gets the Pose2d and timestamp for use with WPILib pose estimator (addVisionMeasurement) when
    * you are on the RED alliance
@@ -1339,6 +1466,21 @@ public class LimelightHelpers {
     return getBotPoseEstimate(limelightName, "botpose_orb_wpired", true);
   }
 
+  /**
+   * Gets the MegaTag2 pose estimate in the WPILib Red alliance coordinate system, decoded
+   * into a caller-owned estimate instead of allocating a new one. Keep one estimate per Limelight
+   * for this call.
+   *
+   * @param limelightName Name of the Limelight camera
+   * @param estimate the estimate to fill
+   * @return true if the estimate was updated with a new frame, false if the Limelight has not
+   *     published a new pose since the last call
+   */
+  public static boolean getBotPoseEstimate_wpiRed_MegaTag2(
+      String limelightName, PoseEstimate estimate) {
+    return decodeBotPoseEstimate(limelightName, "botpose_orb_wpired", true, estimate);
+  }
+
   /**
    * Gets the Pose2d for easy use with Odometry vision pose estimator (addVisionMeasurement)
    *
@@ -1686,4 +1828,158 @@ public class LimelightHelpers {
 
     return results;
   }
+
+  /**
+   * Gets the latest fiducial and botpose results from the JSON output without building the full
+   * Jackson object graph. Only the top-level pipeline, latency, timestamp, validity and botpose
+   * fields and the Fiducial targets are decoded; the Retro, Classifier, Detector and Barcode target
+   * arrays are left empty. The JSON is only re-parsed when the Limelight publishes a new dump, so
+   * repeated calls within a loop are free.
+   *
+   * <p>The returned object and its arrays are reused for the same Limelight on later calls, so do
+   * not hold on to them across frames.
+   *
+   * @param limelightName Name of the Limelight camera
+   * @return LimelightResults object containing the current fiducial data
+   */
+  public static LimelightResults getLatestFiducialResults(String limelightName) {
+    NetworkTableEntry jsonEntry = getLimelightNTTableEntry(limelightName, "json");
+    CachedResults cached =
+        fiducialResultsCache.computeIfAbsent(limelightName, name -> new CachedResults());
+    synchronized (cached) {
+      long lastChange = jsonEntry.getLastChange();
+      if (lastChange != cached.lastChange) {
+        parseFiducialResults(jsonEntry.getString(""), cached.results);
+        cached.lastChange = lastChange;
+      }
+      return cached.results;
+    }
+  }
+
+  /**
+   * Decodes the fiducial and botpose fields of a Limelight JSON dump into an existing results
+   * object with a streaming parser, reusing its arrays and Fiducial targets when the sizes match.
+   *
+   * @param json the Limelight JSON dump
+   * @param results the results object to fill
+   * @return the filled results object
+   */
+  public static LimelightResults parseFiducialResults(String json, LimelightResults results) {
+    long start = System.nanoTime();
+    results.error = null;
+    LimelightTarget_Fiducial[] fiducialPool = results.targets_Fiducials;
+    results.targets_Fiducials = NO_FIDUCIALS; // Restored from the pool if the dump has targets
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Expected a JSON object");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        switch (field) {
+          case "pID" -> results.pipelineID = parser.getValueAsDouble();
+          case "tl" -> results.latency_pipeline = parser.getValueAsDouble();
+          case "cl" -> results.latency_capture = parser.getValueAsDouble();
+          case "ts" -> results.timestamp_LIMELIGHT_publish = parser.getValueAsDouble();
+          case "ts_rio" -> results.timestamp_RIOFPGA_capture = parser.getValueAsDouble();
+          case "v" -> results.valid = parser.getValueAsBoolean();
+          case "botpose" -> results.botpose = readDoubleArray(parser, results.botpose);
+          case "botpose_wpired" ->
+              results.botpose_wpired = readDoubleArray(parser, results.botpose_wpired);
+          case "botpose_wpiblue" ->
+              results.botpose_wpiblue = readDoubleArray(parser, results.botpose_wpiblue);
+          case "botpose_tagcount" -> results.botpose_tagcount = parser.getValueAsDouble();
+          case "botpose_span" -> results.botpose_span = parser.getValueAsDouble();
+          case "botpose_avgdist" -> results.botpose_avgdist = parser.getValueAsDouble();
+          case "botpose_avgarea" -> results.botpose_avgarea = parser.getValueAsDouble();
+          case "t6c_rs" ->
+              results.camerapose_robotspace =
+                  readDoubleArray(parser, results.camerapose_robotspace);
+          case "Fiducial" ->
+              results.targets_Fiducials = readFiducials(parser, fiducialPool);
+          default -> parser.skipChildren();
+        }
+      }
+    } catch (IOException e) {
+      results.error = "lljson error: " + e.getMessage();
+    }
+
+    double millis = (System.nanoTime() - start) * .000001;
+    results.latency_jsonParse = millis;
+    if (profileJSON) {
+      System.out.printf("lljson fiducial: %.2f\r\n", millis);
+    }
+    return results;
+  }
+
+  private static LimelightTarget_Fiducial[] readFiducials(
+      JsonParser parser, LimelightTarget_Fiducial[] reuse) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return reuse;
+    }
+    LimelightTarget_Fiducial[] fiducials = reuse;
+    int count = 0;
+    while (parser.nextToken() == JsonToken.START_OBJECT) {
+      if (count == fiducials.length) {
+        fiducials = Arrays.copyOf(fiducials, Math.max(4, fiducials.length * 2));
+      }
+      if (fiducials[count] == null) {
+        fiducials[count] = new LimelightTarget_Fiducial();
+      }
+      readFiducial(parser, fiducials[count++]);
+    }
+    return count == fiducials.length ? fiducials : Arrays.copyOf(fiducials, count);
+  }
+
+  private static void readFiducial(JsonParser parser, LimelightTarget_Fiducial fiducial)
+      throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      parser.nextToken();
+      switch (field) {
+        case "fID" -> fiducial.fiducialID = parser.getValueAsDouble();
+        case "fam" -> fiducial.fiducialFamily = parser.getValueAsString();
+        case "t6c_ts" ->
+            fiducial.cameraPose_TargetSpace =
+                readDoubleArray(parser, fiducial.cameraPose_TargetSpace);
+        case "t6r_fs" ->
+            fiducial.robotPose_FieldSpace = readDoubleArray(parser, fiducial.robotPose_FieldSpace);
+        case "t6r_ts" ->
+            fiducial.robotPose_TargetSpace =
+                readDoubleArray(parser, fiducial.robotPose_TargetSpace);
+        case "t6t_cs" ->
+            fiducial.targetPose_CameraSpace =
+                readDoubleArray(parser, fiducial.targetPose_CameraSpace);
+        case "t6t_rs" ->
+            fiducial.targetPose_RobotSpace =
+                readDoubleArray(parser, fiducial.targetPose_RobotSpace);
+        case "ta" -> fiducial.ta = parser.getValueAsDouble();
+        case "tx" -> fiducial.tx = parser.getValueAsDouble();
+        case "ty" -> fiducial.ty = parser.getValueAsDouble();
+        case "txp" -> fiducial.tx_pixels = parser.getValueAsDouble();
+        case "typ" -> fiducial.ty_pixels = parser.getValueAsDouble();
+        case "tx_nocross" -> fiducial.tx_nocrosshair = parser.getValueAsDouble();
+        case "ty_nocross" -> fiducial.ty_nocrosshair = parser.getValueAsDouble();
+        case "ts" -> fiducial.ts = parser.getValueAsDouble();
+        default -> parser.skipChildren();
+      }
+    }
+  }
+
+  private static double[] readDoubleArray(JsonParser parser, double[] reuse) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return reuse;
+    }
+    double[] values = reuse;
+    int count = 0;
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (count == values.length) {
+        values = Arrays.copyOf(values, Math.max(6, values.length * 2));
+      }
+      values[count++] = parser.getValueAsDouble();
+    }
+    return count == values.length ? values : Arrays.copyOf(values, count);
+  }
 }
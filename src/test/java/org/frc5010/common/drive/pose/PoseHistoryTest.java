@@ -0,0 +1,103 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.frc5010.common.drive.pose;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import org.junit.jupiter.api.Test;
+
+/** Checks the circular buffer, search and interpolation of the pose history. */
+public class PoseHistoryTest {
+  private static final double EPSILON = 1e-9;
+
+  @Test
+  public void testEmptyHistoryHasNoPose() {
+    PoseHistory history = new PoseHistory(4);
+    assertFalse(history.getPose(1.0).isPresent());
+    assertEquals(Double.POSITIVE_INFINITY, history.distanceTo(1.0, 0.0, 0.0));
+    assertTrue(Double.isNaN(history.getOldestTimestamp()));
+    assertTrue(Double.isNaN(history.getNewestTimestamp()));
+  }
+
+  @Test
+  public void testInterpolatesBetweenSamples() {
+    PoseHistory history = new PoseHistory(4);
+    history.add(1.0, 0.0, 0.0, 0.0);
+    history.add(2.0, 2.0, 4.0, 1.0);
+
+    Pose2d pose = history.getPose(1.25).orElseThrow();
+    assertEquals(0.5, pose.getX(), EPSILON);
+    assertEquals(1.0, pose.getY(), EPSILON);
+    assertEquals(0.25, pose.getRotation().getRadians(), EPSILON);
+    assertEquals(Math.hypot(0.5, 1.0), history.distanceTo(1.25, 0.0, 0.0), EPSILON);
+  }
+
+  @Test
+  public void testInterpolatesHeadingAcrossWrap() {
+    PoseHistory history = new PoseHistory(4);
+    history.add(0.0, 0.0, 0.0, Math.PI - 0.1);
+    history.add(1.0, 0.0, 0.0, -Math.PI + 0.1);
+
+    // The short way round passes through pi, not through zero
+    Pose2d pose = history.getPose(0.5).orElseThrow();
+    assertEquals(Math.PI, Math.abs(pose.getRotation().getRadians()), EPSILON);
+  }
+
+  @Test
+  public void testClampsTimestampsOutsideRange() {
+    PoseHistory history = new PoseHistory(4);
+    history.add(1.0, 1.0, 0.0, 0.0);
+    history.add(2.0, 2.0, 0.0, 0.0);
+
+    assertEquals(1.0, history.getPose(0.5).orElseThrow().getX(), EPSILON);
+    assertEquals(2.0, history.getPose(5.0).orElseThrow().getX(), EPSILON);
+    assertEquals(1.0, history.getPose(1.0).orElseThrow().getX(), EPSILON);
+    assertEquals(2.0, history.getPose(2.0).orElseThrow().getX(), EPSILON);
+  }
+
+  @Test
+  public void testWrapsAroundAndKeepsNewestSamples() {
+    PoseHistory history = new PoseHistory(4);
+    for (int i = 0; i < 10; i++) {
+      history.add(i, i * 10.0, 0.0, 0.0);
+    }
+
+    assertEquals(4, history.size());
+    assertEquals(6.0, history.getOldestTimestamp(), EPSILON);
+    assertEquals(9.0, history.getNewestTimestamp(), EPSILON);
+    // Samples that were overwritten clamp to the oldest one left
+    assertEquals(60.0, history.getPose(2.0).orElseThrow().getX(), EPSILON);
+    // Interpolation across the physical end of the buffer
+    for (int i = 6; i < 9; i++) {
+      assertEquals(i * 10.0 + 5.0, history.getPose(i + 0.5).orElseThrow().getX(), EPSILON);
+    }
+  }
+
+  @Test
+  public void testIgnoresOlderSamplesAndReplacesSameTimestamp() {
+    PoseHistory history = new PoseHistory(4);
+    history.add(1.0, 1.0, 0.0, 0.0);
+    history.add(2.0, 2.0, 0.0, 0.0);
+    history.add(1.5, 100.0, 0.0, 0.0);
+    history.add(2.0, 3.0, 0.0, 0.0);
+
+    assertEquals(2, history.size());
+    assertEquals(2.0, history.getPose(1.5).orElseThrow().getX(), EPSILON);
+    assertEquals(3.0, history.getPose(2.0).orElseThrow().getX(), EPSILON);
+  }
+
+  @Test
+  public void testClearEmptiesHistory() {
+    PoseHistory history = new PoseHistory(4);
+    history.add(1.0, 1.0, 0.0, 0.0);
+    history.clear();
+
+    assertEquals(0, history.size());
+    assertFalse(history.getPose(1.0).isPresent());
+  }
+}
@@ -0,0 +1,106 @@
+// Copyright (c) 2021-2025 Littleton Robotics
+// http://github.com/Mechanical-Advantage
+//
+// Use of this source code is governed by a BSD
+// license that can be found in the LICENSE file
+// at the root directory of this project.
+
+package org.frc5010.common.drive.swerve.akit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+
+/** Verifies that the odometry replay path does not allocate once warmed up. */
+public class OdometrySampleWorkspaceTest {
+  private static final int SAMPLES_PER_LOOP = 5;
+
+  /** Module IO that reports a fixed number of samples per loop from reused arrays. */
+  private static class FakeModuleIO implements ModuleIO {
+    private final double[] timestamps = new double[SAMPLES_PER_LOOP];
+    private final double[] drivePositions = new double[SAMPLES_PER_LOOP];
+    private final Rotation2d[] turnPositions = new Rotation2d[SAMPLES_PER_LOOP];
+    private double time = 0.0;
+    private double position = 0.0;
+
+    FakeModuleIO() {
+      for (int i = 0; i < SAMPLES_PER_LOOP; i++) {
+        turnPositions[i] = Rotation2d.fromDegrees(i * 10.0);
+      }
+    }
+
+    @Override
+    public void updateInputs(ModuleIOInputs inputs) {
+      for (int i = 0; i < SAMPLES_PER_LOOP; i++) {
+        time += 0.004;
+        position += 0.1;
+        timestamps[i] = time;
+        drivePositions[i] = position;
+      }
+      inputs.odometryTimestamps = timestamps;
+      inputs.odometryDrivePositionsRad = drivePositions;
+      inputs.odometryTurnPositions = turnPositions;
+    }
+  }
+
+  private final Module[] modules = new Module[4];
+  private final OdometrySampleWorkspace workspace;
+  private double checksum = 0.0;
+
+  public OdometrySampleWorkspaceTest() {
+    for (int i = 0; i < modules.length; i++) {
+      modules[i] = new Module(new FakeModuleIO(), i);
+    }
+    workspace = new OdometrySampleWorkspace(modules);
+  }
+
+  private void runLoop() {
+    for (Module module : modules) {
+      module.periodic();
+    }
+    int sampleCount = workspace.capture();
+    for (int i = 0; i < sampleCount; i++) {
+      SwerveModulePosition[] positions = workspace.loadSample(i);
+      checksum += workspace.getTimestamp(i) + positions[0].distanceMeters;
+      checksum += workspace.getDeltas()[3].distanceMeters;
+    }
+  }
+
+  @Test
+  public void testDeltasTrackPreviousSample() {
+    runLoop();
+    assertEquals(SAMPLES_PER_LOOP, workspace.getSampleCount());
+    double expectedDelta = 0.1 * DriveConstants.wheelRadiusMeters;
+    for (SwerveModulePosition delta : workspace.getDeltas()) {
+      assertEquals(expectedDelta, delta.distanceMeters, 1e-9);
+      assertEquals(Rotation2d.fromDegrees((SAMPLES_PER_LOOP - 1) * 10.0), delta.angle);
+    }
+  }
+
+  @Test
+  public void testLoopIsAllocationFreeAfterWarmup() {
+    com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    for (int i = 0; i < 20_000; i++) {
+      runLoop();
+    }
+
+    // Account for anything the measurement itself allocates
+    long calibrationStart = threadBean.getThreadAllocatedBytes(threadId);
+    long calibrationEnd = threadBean.getThreadAllocatedBytes(threadId);
+    long measurementOverhead = calibrationEnd - calibrationStart;
+
+    long start = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 1_000; i++) {
+      runLoop();
+    }
+    long allocated = threadBean.getThreadAllocatedBytes(threadId) - start - measurementOverhead;
+
+    assertEquals(0, allocated, "Odometry loop allocated " + allocated + " bytes after warmup");
+  }
+}
@@ -0,0 +1,123 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.frc5010.common.vision;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.frc5010.common.vision.LimelightHelpers.LimelightResults;
+import org.frc5010.common.vision.LimelightHelpers.LimelightTarget_Fiducial;
+import org.junit.jupiter.api.Test;
+
+/** Checks the streaming fiducial parser against the full Jackson deserialization. */
+public class LimelightHelpersTest {
+  private static final String TWO_TAG_DUMP =
+      "{\"pID\":0.0,\"tl\":11.5,\"cl\":22.3,\"ts\":123456.7,\"ts_rio\":98.765,\"v\":1,"
+          + "\"botpose\":[1.0,2.0,0.0,0.0,0.0,45.0],"
+          + "\"botpose_wpired\":[15.5,6.0,0.0,0.0,0.0,-135.0],"
+          + "\"botpose_wpiblue\":[9.27,6.1,0.0,0.0,0.0,45.0],"
+          + "\"botpose_tagcount\":2,\"botpose_span\":0.8,\"botpose_avgdist\":2.4,"
+          + "\"botpose_avgarea\":0.031,\"t6c_rs\":[0.2,0.0,0.5,0.0,15.0,0.0],"
+          + "\"Retro\":[{\"ta\":0.1,\"tx\":1.0,\"ty\":2.0}],"
+          + "\"Fiducial\":["
+          + "{\"fID\":7,\"fam\":\"36H11C\",\"t6c_ts\":[0.1,0.2,-2.0,1.0,2.0,3.0],"
+          + "\"t6r_fs\":[1.0,2.0,0.0,0.0,0.0,45.0],\"t6r_ts\":[0.3,0.1,-2.1,0.0,4.0,0.0],"
+          + "\"t6t_cs\":[-0.1,0.05,2.0,0.0,-3.0,0.0],\"t6t_rs\":[-0.3,0.2,2.2,0.0,-4.0,0.0],"
+          + "\"ta\":0.02,\"tx\":-3.5,\"ty\":1.25,\"txp\":140.0,\"typ\":110.0,"
+          + "\"tx_nocross\":-3.4,\"ty_nocross\":1.2,\"ts\":0.0,"
+          + "\"pts\":[[1,2],[3,4]],\"skew\":{\"a\":1}},"
+          + "{\"fID\":8,\"fam\":\"36H11C\",\"t6c_ts\":[0.4,0.3,-2.5,1.0,0.0,0.0],"
+          + "\"t6r_fs\":[1.1,2.1,0.0,0.0,0.0,44.0],\"t6r_ts\":[0.2,0.0,-2.6,0.0,0.0,0.0],"
+          + "\"t6t_cs\":[-0.4,0.1,2.5,0.0,0.0,0.0],\"t6t_rs\":[-0.5,0.1,2.7,0.0,0.0,0.0],"
+          + "\"ta\":0.015,\"tx\":4.0,\"ty\":-0.5,\"txp\":180.0,\"typ\":125.0,"
+          + "\"tx_nocross\":4.1,\"ty_nocross\":-0.6,\"ts\":0.0}],"
+          + "\"Classifier\":[],\"Detector\":[],\"Barcode\":[]}";
+
+  private static final String NO_TAG_DUMP =
+      "{\"pID\":1.0,\"tl\":9.0,\"cl\":20.0,\"ts\":123500.0,\"ts_rio\":99.0,\"v\":0,"
+          + "\"botpose\":[0,0,0,0,0,0],\"botpose_wpired\":[0,0,0,0,0,0],"
+          + "\"botpose_wpiblue\":[0,0,0,0,0,0],\"botpose_tagcount\":0,"
+          + "\"Fiducial\":[]}";
+
+  private static LimelightResults parseWithJackson(String json) throws Exception {
+    ObjectMapper mapper =
+        new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    return mapper.readValue(json, LimelightResults.class);
+  }
+
+  @Test
+  public void testFiducialParserMatchesJackson() throws Exception {
+    LimelightResults expected = parseWithJackson(TWO_TAG_DUMP);
+    LimelightResults actual =
+        LimelightHelpers.parseFiducialResults(TWO_TAG_DUMP, new LimelightResults());
+
+    assertNull(actual.error);
+    assertEquals(expected.pipelineID, actual.pipelineID);
+    assertEquals(expected.latency_pipeline, actual.latency_pipeline);
+    assertEquals(expected.latency_capture, actual.latency_capture);
+    assertEquals(expected.timestamp_LIMELIGHT_publish, actual.timestamp_LIMELIGHT_publish);
+    assertEquals(expected.timestamp_RIOFPGA_capture, actual.timestamp_RIOFPGA_capture);
+    assertEquals(expected.valid, actual.valid);
+    assertArrayEquals(expected.botpose, actual.botpose);
+    assertArrayEquals(expected.botpose_wpired, actual.botpose_wpired);
+    assertArrayEquals(expected.botpose_wpiblue, actual.botpose_wpiblue);
+    assertArrayEquals(expected.camerapose_robotspace, actual.camerapose_robotspace);
+    assertEquals(expected.botpose_tagcount, actual.botpose_tagcount);
+    assertEquals(expected.botpose_span, actual.botpose_span);
+    assertEquals(expected.botpose_avgdist, actual.botpose_avgdist);
+    assertEquals(expected.botpose_avgarea, actual.botpose_avgarea);
+    assertEquals(expected.getBotPose2d_wpiBlue(), actual.getBotPose2d_wpiBlue());
+
+    assertEquals(expected.targets_Fiducials.length, actual.targets_Fiducials.length);
+    for (int i = 0; i < expected.targets_Fiducials.length; i++) {
+      LimelightTarget_Fiducial expectedTag = expected.targets_Fiducials[i];
+      LimelightTarget_Fiducial actualTag = actual.targets_Fiducials[i];
+      assertEquals(expectedTag.fiducialID, actualTag.fiducialID);
+      assertEquals(expectedTag.fiducialFamily, actualTag.fiducialFamily);
+      assertEquals(expectedTag.ta, actualTag.ta);
+      assertEquals(expectedTag.tx, actualTag.tx);
+      assertEquals(expectedTag.ty, actualTag.ty);
+      assertEquals(expectedTag.tx_pixels, actualTag.tx_pixels);
+      assertEquals(expectedTag.ty_pixels, actualTag.ty_pixels);
+      assertEquals(expectedTag.tx_nocrosshair, actualTag.tx_nocrosshair);
+      assertEquals(expectedTag.ty_nocrosshair, actualTag.ty_nocrosshair);
+      assertEquals(expectedTag.getCameraPose_TargetSpace(), actualTag.getCameraPose_TargetSpace());
+      assertEquals(expectedTag.getRobotPose_FieldSpace(), actualTag.getRobotPose_FieldSpace());
+      assertEquals(expectedTag.getRobotPose_TargetSpace(), actualTag.getRobotPose_TargetSpace());
+      assertEquals(expectedTag.getTargetPose_CameraSpace(), actualTag.getTargetPose_CameraSpace());
+      assertEquals(expectedTag.getTargetPose_RobotSpace(), actualTag.getTargetPose_RobotSpace());
+    }
+  }
+
+  @Test
+  public void testFiducialParserReusesResults() {
+    LimelightResults results = new LimelightResults();
+    double[] botpose = results.botpose;
+
+    LimelightHelpers.parseFiducialResults(TWO_TAG_DUMP, results);
+    LimelightTarget_Fiducial firstTag = results.targets_Fiducials[0];
+    assertSame(botpose, results.botpose);
+
+    LimelightHelpers.parseFiducialResults(TWO_TAG_DUMP, results);
+    assertSame(firstTag, results.targets_Fiducials[0]);
+
+    LimelightHelpers.parseFiducialResults(NO_TAG_DUMP, results);
+    assertEquals(0, results.targets_Fiducials.length);
+    assertEquals(false, results.valid);
+    assertSame(botpose, results.botpose);
+  }
+
+  @Test
+  public void testFiducialParserReportsMalformedJson() {
+    LimelightResults results =
+        LimelightHelpers.parseFiducialResults("{\"pID\":", new LimelightResults());
+    assertNotNull(results.error);
+  }
+}